@@ -0,0 +1,361 @@
+package hashmap;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread-safe hash table-backed Map implementation, with the buckets of MyHashMap guarded by striped locks.
+ * Threads that work on keys of different stripes never wait for each other, the size is a LongAdder
+ * so counting does not make them contend either, and growing the table is shared by the threads that use it.
+ * Assumes null keys will never be inserted, and does not resize down upon remove().
+ * keySet() and iterator() see every key that was in the map for the whole call, and maybe some others.
+ * computeIfAbsent() and merge() are atomic: their function runs under the lock of the stripe of the key,
+ * so it must be short and must not use the map.
+ **/
+/* Striping:
+   1. The table length and the number of stripes are powers of two, and the table is never shorter.
+   So the bucket of a hash is hash & (length - 1), and its stripe is hash & (stripes - 1) = bucket & (stripes - 1).
+   That does not change when the table doubles, so one lock guards the same keys before and after a resize.
+   2. A resize only publishes a Resize: the new table and which stripes have been moved into it.
+   Whoever takes a stripe lock while a Resize is going on moves that stripe first if nobody has, so the threads
+   that use the map share the work, and the resizing thread moves the stripes that are left.
+   3. Under the lock of its stripe a key is always in one place: the new table once its stripe is moved,
+   the current table otherwise. The table is only replaced once every stripe has been moved. */
+public class ConcurrentMyHashMap<K, V> implements Map61B<K, V> {
+    /* Helper class to store key/value pairs, with the spread hash of the key. */
+    protected class Node {
+        final K key;
+        final int hash;
+        V value;
+
+        Node(K k, int h, V v) {
+            key = k;
+            hash = h;
+            value = v;
+        }
+    }
+
+    /* A resize going on: the table it moves to, and the stripes already moved there. */
+    private class Resize {
+        final Collection<Node>[] to;
+        /* Only read and written under the lock of each stripe. */
+        final boolean[] moved;
+
+        Resize(Collection<Node>[] to) {
+            this.to = to;
+            this.moved = new boolean[locks.length];
+        }
+    }
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_STRIPES = 64;
+    private final ReentrantLock[] locks;
+    private final double loadFactor;
+    private volatile Collection<Node>[] buckets;
+    private volatile Resize resize;
+    /* The size at which the table doubles. */
+    private volatile int threshold;
+    private final LongAdder size = new LongAdder();
+    /* Held by the thread that starts a resize, so only one goes on at a time. */
+    private final Object resizeLock = new Object();
+
+    /* Constructors : default initialSize=16, loadFactor=0.75, stripes=64 */
+    public ConcurrentMyHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentMyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentMyHashMap(int initialSize, double maxLoad) {
+        this(initialSize, maxLoad, DEFAULT_STRIPES);
+    }
+
+    /* The number of stripes is rounded up to a power of two, and so is the initial size, to at least that. */
+    public ConcurrentMyHashMap(int initialSize, double maxLoad, int stripes) {
+        int stripeCount = powerOfTwoAtLeast(stripes);
+        locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        loadFactor = maxLoad;
+        buckets = createTable(powerOfTwoAtLeast(Math.max(initialSize, stripeCount)));
+        threshold = (int) (buckets.length * loadFactor);
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        int powerOfTwo = 1;
+        while (powerOfTwo < n) {
+            powerOfTwo <<= 1;
+        }
+        return powerOfTwo;
+    }
+
+    /* Returns a data structure to be a hash table bucket. It is only ever used under the lock of its stripe. */
+    protected Collection<Node> createBucket() {
+        return new LinkedList<>();
+    }
+
+    /* Returns a table to back our hash table. Guarantee all the elements is created by the factory method. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Collection<Node>[] createTable(int tableSize) {
+        Collection<Node>[] hashTable = new Collection[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            hashTable[i] = createBucket();
+        }
+        return hashTable;
+    }
+
+    /* Spread the high bits of the hash code into the low bits, which are the only ones the masks keep. */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /* Lock the stripe of the hash, moving it into the new table first if a resize needs it, and
+     *  return the table that holds the keys of that stripe. The caller must unlock the stripe after. */
+    private Collection<Node>[] lockStripe(int hash) {
+        int stripe = hash & (locks.length - 1);
+        locks[stripe].lock();
+        Resize current = resize;
+        if (current == null) {
+            return buckets;
+        }
+        if (!current.moved[stripe]) {
+            moveStripe(stripe, buckets, current);
+        }
+        return current.to;
+    }
+
+    private void unlockStripe(int hash) {
+        locks[hash & (locks.length - 1)].unlock();
+    }
+
+    /* Move the nodes of the stripe from the table into the new one. Must hold the lock of the stripe.
+     *  The node objects themselves are moved, a bucket i only goes to bucket i or i + from.length. */
+    private void moveStripe(int stripe, Collection<Node>[] from, Resize current) {
+        for (int i = stripe; i < from.length; i += locks.length) {
+            for (Node node : from[i]) {
+                current.to[node.hash & (current.to.length - 1)].add(node);
+            }
+            from[i] = null;
+        }
+        current.moved[stripe] = true;
+    }
+
+    /* Double the table, if it is still the one that was full. The stripes nobody has moved yet are moved here. */
+    private void resize(Collection<Node>[] full) {
+        synchronized (resizeLock) {
+            if (buckets != full) {
+                return;
+            }
+            Resize current = new Resize(createTable(full.length * 2));
+            resize = current;
+            for (int stripe = 0; stripe < locks.length; stripe++) {
+                locks[stripe].lock();
+                try {
+                    if (!current.moved[stripe]) {
+                        moveStripe(stripe, full, current);
+                    }
+                } finally {
+                    locks[stripe].unlock();
+                }
+            }
+            buckets = current.to;
+            threshold = (int) (current.to.length * loadFactor);
+            resize = null;
+        }
+    }
+
+    /* Removes all the mappings from this map. */
+    @Override
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            Collection<Node>[] table = lockStripe(stripe);
+            try {
+                for (int i = stripe; i < table.length; i += locks.length) {
+                    size.add(-table[i].size());
+                    table[i].clear();
+                }
+            } finally {
+                unlockStripe(stripe);
+            }
+        }
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(K key) {
+        int h = hash(key);
+        Collection<Node>[] table = lockStripe(h);
+        try {
+            return find(table, key, h) != null;
+        } finally {
+            unlockStripe(h);
+        }
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
+    @Override
+    public V get(K key) {
+        int h = hash(key);
+        Collection<Node>[] table = lockStripe(h);
+        try {
+            Node node = find(table, key, h);
+            return node == null ? null : node.value;
+        } finally {
+            unlockStripe(h);
+        }
+    }
+
+    /* Return the node of the key in the table, or null. Must hold the lock of its stripe. */
+    private Node find(Collection<Node>[] table, K key, int h) {
+        for (Node node : table[h & (table.length - 1)]) {
+            if (node.hash == h && node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /* Associates the specified value with the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    @Override
+    public void put(K key, V value) {
+        int h = hash(key);
+        Collection<Node>[] table = lockStripe(h);
+        try {
+            Node node = find(table, key, h);
+            if (node != null) {
+                node.value = value;
+                return;
+            }
+            table[h & (table.length - 1)].add(new Node(key, h, value));
+        } finally {
+            unlockStripe(h);
+        }
+        added();
+    }
+
+    /* Count a node added, and double the table if that made it full. Called after unlocking the stripe. */
+    private void added() {
+        size.increment();
+        Collection<Node>[] current = buckets;
+        if (resize == null && size.sum() >= threshold) {
+            resize(current);
+        }
+    }
+
+    /* Returns the value of the key, or else computes one, puts it unless it is null, and returns it,
+    all under the lock of the stripe of the key. */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        int h = hash(key);
+        Collection<Node>[] table = lockStripe(h);
+        V value;
+        try {
+            Node node = find(table, key, h);
+            if (node != null) {
+                return node.value;
+            }
+            value = mappingFunction.apply(key);
+            if (value == null) {
+                return null;
+            }
+            table[h & (table.length - 1)].add(new Node(key, h, value));
+        } finally {
+            unlockStripe(h);
+        }
+        added();
+        return value;
+    }
+
+    /* Puts the value if the key has none, or else the remapping of the old value and the given one, and
+    returns it, all under the lock of the stripe of the key. If that is null, the key is removed instead. */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        int h = hash(key);
+        Collection<Node>[] table = lockStripe(h);
+        try {
+            Node node = find(table, key, h);
+            if (node != null) {
+                V newValue = remappingFunction.apply(node.value, value);
+                if (newValue == null) {
+                    table[h & (table.length - 1)].remove(node);
+                    size.decrement();
+                } else {
+                    node.value = newValue;
+                }
+                return newValue;
+            }
+            table[h & (table.length - 1)].add(new Node(key, h, value));
+        } finally {
+            unlockStripe(h);
+        }
+        added();
+        return value;
+    }
+
+    /* Returns a Set of the keys contained in this map. Each stripe is copied under its lock in turn. */
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            Collection<Node>[] table = lockStripe(stripe);
+            try {
+                for (int i = stripe; i < table.length; i += locks.length) {
+                    for (Node node : table[i]) {
+                        keys.add(node.key);
+                    }
+                }
+            } finally {
+                unlockStripe(stripe);
+            }
+        }
+        return keys;
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @Override
+    public V remove(K key) {
+        return remove(key, null, false);
+    }
+
+    /* Removes the entry for the specified key only if it is currently mapped to the specified value. */
+    @Override
+    public V remove(K key, V value) {
+        return remove(key, value, true);
+    }
+
+    private V remove(K key, V value, boolean matchValue) {
+        int h = hash(key);
+        Collection<Node>[] table = lockStripe(h);
+        try {
+            Node node = find(table, key, h);
+            if (node == null || (matchValue && !node.value.equals(value))) {
+                return null;
+            }
+            table[h & (table.length - 1)].remove(node);
+            size.decrement();
+            return node.value;
+        } finally {
+            unlockStripe(h);
+        }
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return keySet().iterator();
+    }
+}
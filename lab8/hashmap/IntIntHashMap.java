@@ -0,0 +1,200 @@
+package hashmap;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from int keys to int values, with the same operations as Map61B but no boxing:
+ * the keys and values are kept in two int arrays and compared with ==.
+ * get() and remove() of a missing key return noEntryValue, which is 0 unless given to the constructor.
+ * Provides amortized constant time access via get(), remove() and put(),
+ * and does not resize down upon remove().
+ **/
+/* The table is open addressed with linear probing over a power-of-two length.
+   1. Every key is a valid int, so no key can mark an empty slot. The key 0 marks it instead,
+   and the entry of the key 0, if any, is kept aside in hasZeroKey and zeroValue.
+   2. remove() leaves no tombstone: it moves back every following entry of the run that
+   would not be found anymore from its home slot, like Knuth's Algorithm R. */
+public class IntIntHashMap {
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private double loadFactor;
+    /* The table grows once size reaches threshold, which is always below its length. */
+    private int threshold;
+    /* The number of entries in the arrays, not counting the key 0. */
+    private int tableSize;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private final int noEntryValue;
+
+    /* Constructors : default initialSize=16, loadFactor=0.75, noEntryValue=0 */
+    public IntIntHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    public IntIntHashMap(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    public IntIntHashMap(int initialSize, double maxLoad, int noEntryValue) {
+        loadFactor = maxLoad;
+        this.noEntryValue = noEntryValue;
+        int length = 2;
+        while (length < initialSize) {
+            length <<= 1;
+        }
+        createTable(length);
+    }
+
+    private void createTable(int length) {
+        keys = new int[length];
+        values = new int[length];
+        mask = length - 1;
+        threshold = Math.min((int) (length * loadFactor), length - 1);
+    }
+
+    /* Fibonacci hashing: the multiply moves the entropy of all the bits into the high ones,
+     *  and the shift brings them down to the low ones that the mask keeps. */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Return the slot of the key, or -1 if it is not in the table. The key must not be 0. */
+    private int indexOf(int key) {
+        int i = hash(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /* Removes all the mappings from this map. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        tableSize = 0;
+        hasZeroKey = false;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /* Returns the value to which the specified key is mapped, or noEntryValue if there is none. */
+    public int get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    /* Returns the value to which the specified key is mapped, or defaultValue if there is none. */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : defaultValue;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    public int size() {
+        return hasZeroKey ? tableSize + 1 : tableSize;
+    }
+
+    /* Associates the specified value with the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    public void put(int key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = hash(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (tableSize >= threshold) {
+            resize();
+            i = hash(key) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        tableSize++;
+    }
+
+    /* Double the table and put every entry back. */
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        createTable(oldKeys.length * 2);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = hash(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /* Removes the mapping for the specified key and returns its value, or noEntryValue if there is none. */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            hasZeroKey = false;
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return noEntryValue;
+        }
+        int removedValue = values[i];
+        // Move back each following entry whose home slot is not in (i, j], it could not be found past the hole
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == 0) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        tableSize--;
+        return removedValue;
+    }
+
+    /* Returns the keys of this map, in no particular order. */
+    public int[] keys() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+}
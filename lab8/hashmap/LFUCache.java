@@ -0,0 +1,114 @@
+package hashmap;
+
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A cache that evicts the least frequently used entry first, and of those the least recently used.
+ * A put() of a new key counts as its first use.
+ **/
+/* The O(1) LFU of Shah, Mitra and Matani:
+   1. The entries used n times are in one list, from the least recently used to the most.
+   2. The lists of the counts that some entry has are linked themselves, in increasing order of count.
+   So a use moves an entry from the list of n to the list of n + 1, which is the next one or is created
+   right there, and the eviction takes the first entry of the first list. Empty lists are unlinked. */
+public class LFUCache<K, V> extends MyHashMapCache<K, V> {
+    /* The list of the entries used count times. */
+    private class FrequencyList extends EntryList {
+        final long count;
+        FrequencyList prevList;
+        FrequencyList nextList;
+
+        FrequencyList(long count) {
+            this.count = count;
+        }
+    }
+
+    /* An entry that knows the list it is in. */
+    private class LFUEntry extends Entry {
+        FrequencyList list;
+
+        LFUEntry(K k, V v, long w) {
+            super(k, v, w);
+        }
+    }
+
+    /* The sentinel of the circular list of lists. Its count of 0 is never used by an entry. */
+    private final FrequencyList lists = new FrequencyList(0);
+
+    /* A cache of at most maxEntries entries. */
+    public LFUCache(int maxEntries) {
+        super(maxEntries);
+        cleared();
+    }
+
+    /* A cache whose entries weigh at most maxWeight together, for instance in bytes. */
+    public LFUCache(long maxWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        super(maxWeight, weigher);
+        cleared();
+    }
+
+    @Override
+    protected Entry createEntry(K key, V value, long entryWeight) {
+        return new LFUEntry(key, value, entryWeight);
+    }
+
+    @Override
+    protected void added(Entry e) {
+        moveTo((LFUEntry) e, lists, 1);
+    }
+
+    @Override
+    protected void accessed(Entry e) {
+        LFUEntry entry = (LFUEntry) e;
+        FrequencyList from = entry.list;
+        unlink(entry);
+        moveTo(entry, from, from.count + 1);
+        unlinkIfEmpty(from);
+    }
+
+    @Override
+    protected void removed(Entry e) {
+        LFUEntry entry = (LFUEntry) e;
+        unlink(entry);
+        unlinkIfEmpty(entry.list);
+        entry.list = null;
+    }
+
+    @Override
+    protected Entry victim(Entry spared) {
+        FrequencyList list = lists.nextList;
+        Entry first = list.first();
+        if (first != spared) {
+            return first;
+        }
+        Entry next = list.after(first);
+        return next != null ? next : list.nextList.first();
+    }
+
+    @Override
+    protected void cleared() {
+        lists.prevList = lists;
+        lists.nextList = lists;
+    }
+
+    /* Add the entry at the end of the list of count, which is after, or right after it if there is none yet. */
+    private void moveTo(LFUEntry entry, FrequencyList after, long count) {
+        FrequencyList list = after.nextList;
+        if (list.count != count) {
+            list = new FrequencyList(count);
+            list.prevList = after;
+            list.nextList = after.nextList;
+            after.nextList.prevList = list;
+            after.nextList = list;
+        }
+        list.addLast(entry);
+        entry.list = list;
+    }
+
+    private void unlinkIfEmpty(FrequencyList list) {
+        if (list.isEmpty()) {
+            list.prevList.nextList = list.nextList;
+            list.nextList.prevList = list.prevList;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package hashmap;
+
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A cache that evicts the least recently used entry first.
+ * All the entries are in one list, from the least recently used to the most: an access moves
+ * an entry to the end, and the eviction takes the first one.
+ **/
+public class LRUCache<K, V> extends MyHashMapCache<K, V> {
+    private final EntryList recency = new EntryList();
+
+    /* A cache of at most maxEntries entries. */
+    public LRUCache(int maxEntries) {
+        super(maxEntries);
+    }
+
+    /* A cache whose entries weigh at most maxWeight together, for instance in bytes. */
+    public LRUCache(long maxWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        super(maxWeight, weigher);
+    }
+
+    @Override
+    protected void added(Entry e) {
+        recency.addLast(e);
+    }
+
+    @Override
+    protected void accessed(Entry e) {
+        unlink(e);
+        recency.addLast(e);
+    }
+
+    @Override
+    protected void removed(Entry e) {
+        unlink(e);
+    }
+
+    @Override
+    protected Entry victim(Entry spared) {
+        Entry first = recency.first();
+        return first == spared ? recency.after(first) : first;
+    }
+
+    @Override
+    protected void cleared() {
+        recency.clear();
+    }
+}
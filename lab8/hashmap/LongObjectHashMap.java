@@ -0,0 +1,193 @@
+package hashmap;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to object values, with the same operations as Map61B but no boxing
+ * of the keys: they are kept in a long array and compared with ==.
+ * Assumes null values will never be inserted, since get() returns null for a missing key.
+ * Provides amortized constant time access via get(), remove() and put(),
+ * and does not resize down upon remove().
+ **/
+/* Laid out like IntIntHashMap: linear probing over a power-of-two table, the key 0 marks an empty slot
+   and its own entry is kept aside, and remove() moves the following entries back instead of leaving tombstones. */
+public class LongObjectHashMap<V> {
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private double loadFactor;
+    /* The table grows once size reaches threshold, which is always below its length. */
+    private int threshold;
+    /* The number of entries in the arrays, not counting the key 0. */
+    private int tableSize;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /* Constructors : default initialSize=16, loadFactor=0.75 */
+    public LongObjectHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongObjectHashMap(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongObjectHashMap(int initialSize, double maxLoad) {
+        loadFactor = maxLoad;
+        int length = 2;
+        while (length < initialSize) {
+            length <<= 1;
+        }
+        createTable(length);
+    }
+
+    private void createTable(int length) {
+        keys = new long[length];
+        values = new Object[length];
+        mask = length - 1;
+        threshold = Math.min((int) (length * loadFactor), length - 1);
+    }
+
+    /* Fibonacci hashing over all 64 bits, folded into an int whose low bits depend on every bit of the key. */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) ^ (int) (h >>> 48);
+    }
+
+    /* Return the slot of the key, or -1 if it is not in the table. The key must not be 0. */
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /* Removes all the mappings from this map. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        tableSize = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    public int size() {
+        return hasZeroKey ? tableSize + 1 : tableSize;
+    }
+
+    /* Associates the specified value with the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    public void put(long key, V value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = hash(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (tableSize >= threshold) {
+            resize();
+            i = hash(key) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        tableSize++;
+    }
+
+    /* Double the table and put every entry back. */
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        createTable(oldKeys.length * 2);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = hash(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V removedValue = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return removedValue;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V removedValue = (V) values[i];
+        // Move back each following entry whose home slot is not in (i, j], it could not be found past the hole
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == 0) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        values[i] = null;
+        tableSize--;
+        return removedValue;
+    }
+
+    /* Returns the keys of this map, in no particular order. */
+    public long[] keys() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+}
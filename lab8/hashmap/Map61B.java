@@ -1,6 +1,11 @@
 package hashmap;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 /**
  * Your implementation hashmap.MyHashMap should implement this interface. To do so,
  * append "implements hashmap.Map61B<K, V>" to the end of your "public class..."
@@ -45,5 +50,75 @@ public interface Map61B<K, V> extends Iterable<K> {
      * throw an UnsupportedOperationException.
      */
     V remove(K key, V value);
+
+    /*
+     * The bulk and compute-style operations below are built on the ones above, so every map has them.
+     * A map that can do better, like hashmap.MyHashMap, overrides them. They are not atomic unless the
+     * map says so.
+     */
+
+    /** Puts every entry of the given map into this one, replacing the values of keys already here. */
+    default void putAll(Map<? extends K, ? extends V> entries) {
+        for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /** Returns a map from each of the given keys that this map contains to its value. */
+    default Map<K, V> getAll(Iterable<? extends K> keys) {
+        Map<K, V> found = new HashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the value of the key. If there is none, computes one from the key,
+     * puts it unless it is null, and returns it.
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Puts the value if the key has none, or else the result of the remapping function on the old value
+     * and the given one. If that result is null, the key is removed instead. Returns the new value.
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        V oldValue = get(key);
+        V newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+        if (newValue == null) {
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    /** Removes every entry whose key and value satisfy the filter. Returns true if any was removed. */
+    default boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        Map<K, V> matching = new HashMap<>();
+        for (K key : this) {
+            V value = get(key);
+            if (filter.test(key, value)) {
+                matching.put(key, value);
+            }
+        }
+        for (K key : matching.keySet()) {
+            remove(key);
+        }
+        return !matching.isEmpty();
+    }
 }
 
@@ -0,0 +1,545 @@
+package hashmap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent hash map from byte arrays to byte arrays, kept in two memory-mapped files:
+ * BASE.log, where every put() and remove() appends a record, and BASE.table, the hash table of the
+ * records that are live. Opening the map after close() only maps the files, whatever their size,
+ * and the operating system reads their pages in as they are touched.
+ * If the map was not closed, opening it rebuilds the table from the log, up to its last whole record.
+ * Keys are compared by their bytes, and get(), keySet() and iterator() return copies.
+ * Assumes null keys and values will never be inserted. The log only grows: clear() is the only way to shrink it.
+ * The last chunk of the log is mapped only as far as the log needs, and close() cuts the file to the log.
+ **/
+/* Layout:
+   1. BASE.table starts with a header of HEADER_BYTES: MAGIC, VERSION, the size, the number of slots, the length of
+   the log, whether the map was closed and chunkBytes. Then come the slots, like in OffHeapHashMap: the position of a record
+   in the log plus 1, 0 for an empty slot, and the hash of its key. It is linear probed with backward-shift removes.
+   2. BASE.log is mapped in chunks of chunkBytes, and no record crosses a chunk: if one does not fit, the rest of
+   the chunk is skipped, with a PADDING record if there is room for its header. The last chunk is mapped from
+   MIN_MAPPED_BYTES, and mapped again twice as big whenever a record goes past it, up to chunkBytes.
+   A record is the CRC32 of the rest of it, the key length, the value length, or TOMBSTONE for a remove(),
+   the key and the value.
+   3. Crash consistency: a record is appended past the end of the log, then its CRC is written, and only then
+   does the table point to it and the header count it. Pages may reach the disk in any order, so on a dirty open
+   the log is read from the start, and the first record whose CRC does not match ends it: the log is cut there,
+   which keeps a prefix of the operations, and the table is rebuilt from that prefix.
+   4. A bigger table is written to BASE.table.tmp and renamed over BASE.table, so there is always a whole one. */
+public class MappedHashMap implements Map61B<byte[], byte[]>, Closeable {
+    static final int MAGIC = 0x61B0CAFE;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int MAGIC_AT = 0;
+    static final int VERSION_AT = 4;
+    static final int SIZE_AT = 8;
+    static final int SLOTS_AT = 12;
+    static final int LOG_LENGTH_AT = 16;
+    static final int CLEAN_AT = 24;
+    static final int CHUNK_BYTES_AT = 28;
+    private static final int SLOT_BYTES = 12;
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+    private static final int MIN_MAPPED_BYTES = 1 << 16;
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final int TOMBSTONE = -1;
+    private static final int PADDING = -1;
+    private final Path tablePath;
+    private final FileChannel log;
+    private final int chunkBytes;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private MappedByteBuffer table;
+    private int mask;
+    private int threshold;
+    private int size;
+    private long logLength;
+
+    /* Opens the map in the files BASE.table and BASE.log, creating them if they do not exist. */
+    public static MappedHashMap open(Path base) throws IOException {
+        return new MappedHashMap(base, DEFAULT_CHUNK_BYTES);
+    }
+
+    /* Opens the map with chunks of the log of chunkBytes, which must be the same on every open. */
+    static MappedHashMap open(Path base, int chunkBytes) throws IOException {
+        return new MappedHashMap(base, chunkBytes);
+    }
+
+    private MappedHashMap(Path base, int chunkBytes) throws IOException {
+        this.chunkBytes = chunkBytes;
+        tablePath = base.resolveSibling(base.getFileName() + ".table");
+        log = FileChannel.open(base.resolveSibling(base.getFileName() + ".log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (Files.exists(tablePath) && Files.size(tablePath) >= HEADER_BYTES) {
+            table = map(tablePath, Files.size(tablePath));
+            if (table.getInt(MAGIC_AT) != MAGIC) {
+                log.close();
+                throw new IOException(tablePath + " is not a map table");
+            }
+            if (table.getInt(VERSION_AT) != VERSION) {
+                log.close();
+                throw new IOException(tablePath + " has layout version " + table.getInt(VERSION_AT)
+                        + ", not " + VERSION);
+            }
+            if (table.getInt(CHUNK_BYTES_AT) != chunkBytes) {
+                log.close();
+                throw new IOException(tablePath + " has chunks of " + table.getInt(CHUNK_BYTES_AT)
+                        + " bytes, not " + chunkBytes);
+            }
+        }
+        if (table != null && table.getInt(CLEAN_AT) == 1 && table.getLong(LOG_LENGTH_AT) <= log.size()) {
+            size = table.getInt(SIZE_AT);
+            setLength(table.getInt(SLOTS_AT));
+            logLength = table.getLong(LOG_LENGTH_AT);
+            reserve(logLength);
+        } else {
+            rebuild();
+        }
+        table.putInt(CLEAN_AT, 0);
+        table.force();
+    }
+
+    /* Writes everything to the disk, cuts the log file to the log, and marks the map as closed,
+    so the next open does not rebuild it. */
+    @Override
+    public void close() throws IOException {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+        chunks.clear();
+        log.truncate(logLength);
+        log.force(true);
+        table.force();
+        table.putInt(CLEAN_AT, 1);
+        table.force();
+        log.close();
+    }
+
+    /* ------------------------------- Files ------------------------------- */
+
+    private static MappedByteBuffer map(Path path, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    /* Write an empty table of length slots, with the current header, and rename it over the table. */
+    private void createTable(int length) throws IOException {
+        Path tmp = tablePath.resolveSibling(tablePath.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        MappedByteBuffer newTable = map(tmp, HEADER_BYTES + (long) length * SLOT_BYTES);
+        newTable.putInt(MAGIC_AT, MAGIC);
+        newTable.putInt(VERSION_AT, VERSION);
+        newTable.putInt(SIZE_AT, size);
+        newTable.putInt(SLOTS_AT, length);
+        newTable.putLong(LOG_LENGTH_AT, logLength);
+        newTable.putInt(CLEAN_AT, 0);
+        newTable.putInt(CHUNK_BYTES_AT, chunkBytes);
+        MappedByteBuffer oldTable = table;
+        int oldLength = mask + 1;
+        table = newTable;
+        setLength(length);
+        if (oldTable != null) {
+            for (int j = 0; j < oldLength; j++) {
+                long ref = oldTable.getLong(HEADER_BYTES + j * SLOT_BYTES);
+                if (ref != 0) {
+                    int hash = oldTable.getInt(HEADER_BYTES + j * SLOT_BYTES + 8);
+                    int i = hash & mask;
+                    while (refAt(i) != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    setSlot(i, ref, hash);
+                }
+            }
+        }
+        newTable.force();
+        Files.move(tmp, tablePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void setLength(int length) {
+        mask = length - 1;
+        threshold = Math.min((int) (length * LOAD_FACTOR), length - 1);
+    }
+
+    /* Read the log from the start into a new table, and cut it after its last whole record. */
+    private void rebuild() throws IOException {
+        size = 0;
+        logLength = 0;
+        table = null;
+        createTable(DEFAULT_INITIAL_SIZE);
+        long fileLength = log.size();
+        reserve(fileLength);
+        long position = 0;
+        while (true) {
+            int offset = (int) (position % chunkBytes);
+            if (chunkBytes - offset < RECORD_HEADER_BYTES) {
+                position += chunkBytes - offset;
+                continue;
+            }
+            if (position + RECORD_HEADER_BYTES > fileLength || !validRecord(position, fileLength)) {
+                break;
+            }
+            ByteBuffer chunk = chunk(position);
+            int keyLength = chunk.getInt(offset + 4);
+            if (keyLength == PADDING) {
+                position += chunkBytes - offset;
+                continue;
+            }
+            byte[] key = readKey(position);
+            int hash = hash(key);
+            int i = indexOf(key, hash);
+            if (chunk.getInt(offset + 8) == TOMBSTONE) {
+                if (i >= 0) {
+                    removeAt(i);
+                }
+            } else if (i >= 0) {
+                setSlot(i, position + 1, hash);
+            } else {
+                insert(position + 1, hash);
+            }
+            position += recordBytes(keyLength, chunk.getInt(offset + 8));
+        }
+        logLength = position;
+        chunks.clear();
+        log.truncate(logLength);
+        log.force(true);
+        reserve(logLength);
+        table.putInt(SIZE_AT, size);
+        table.putLong(LOG_LENGTH_AT, logLength);
+    }
+
+    private boolean validRecord(long position, long fileLength) {
+        ByteBuffer chunk = chunk(position);
+        int offset = (int) (position % chunkBytes);
+        int keyLength = chunk.getInt(offset + 4);
+        int valueLength = chunk.getInt(offset + 8);
+        if (keyLength < PADDING || valueLength < TOMBSTONE) {
+            return false;
+        }
+        long bytes = keyLength == PADDING ? RECORD_HEADER_BYTES : recordBytes(keyLength, valueLength);
+        if (offset + bytes > chunkBytes || position + bytes > fileLength) {
+            return false;
+        }
+        return chunk.getInt(offset) == crc(chunk, offset, (int) bytes);
+    }
+
+    /* The CRC32 of the record at offset of bytes, but its first 4 bytes, which hold the CRC. */
+    private static int crc(ByteBuffer chunk, int offset, int bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(chunk.duplicate().limit(offset + bytes).position(offset + 4));
+        return (int) crc.getValue();
+    }
+
+    private static long recordBytes(int keyLength, int valueLength) {
+        return RECORD_HEADER_BYTES + (long) keyLength + Math.max(valueLength, 0);
+    }
+
+    /* Returns the chunk of the log that holds position, which must be mapped already. */
+    private MappedByteBuffer chunk(long position) {
+        return chunks.get((int) (position / chunkBytes));
+    }
+
+    /* Map the log up to end at least. The last chunk is mapped again twice as big, or as big as end needs,
+     *  and the chunks before it are whole. Mapping past the end of the file makes it that long. */
+    private void reserve(long end) {
+        try {
+            while (end > mappedLength()) {
+                int last = chunks.size() - 1;
+                if (last >= 0 && chunks.get(last).capacity() < chunkBytes) {
+                    long start = (long) last * chunkBytes;
+                    long bytes = Math.min(chunkBytes, Math.max(end - start, 2L * chunks.get(last).capacity()));
+                    chunks.set(last, log.map(FileChannel.MapMode.READ_WRITE, start, bytes));
+                } else {
+                    long start = (long) chunks.size() * chunkBytes;
+                    long bytes = Math.min(chunkBytes, Math.max(end - start, MIN_MAPPED_BYTES));
+                    chunks.add(log.map(FileChannel.MapMode.READ_WRITE, start, bytes));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long mappedLength() {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        return (long) (chunks.size() - 1) * chunkBytes + chunks.get(chunks.size() - 1).capacity();
+    }
+
+    /* Append a record of the key and the value, or a tombstone if value is null, and return its position. */
+    private long append(byte[] key, byte[] value) {
+        int valueLength = value == null ? TOMBSTONE : value.length;
+        long bytes = recordBytes(key.length, valueLength);
+        if (bytes > chunkBytes) {
+            throw new IllegalArgumentException("an entry of " + bytes + " bytes does not fit in a chunk");
+        }
+        int offset = (int) (logLength % chunkBytes);
+        if (offset + bytes > chunkBytes) {
+            if (chunkBytes - offset >= RECORD_HEADER_BYTES) {
+                reserve(logLength + RECORD_HEADER_BYTES);
+                MappedByteBuffer chunk = chunk(logLength);
+                chunk.putInt(offset + 4, PADDING);
+                chunk.putInt(offset + 8, 0);
+                chunk.putInt(offset, crc(chunk, offset, RECORD_HEADER_BYTES));
+            }
+            logLength += chunkBytes - offset;
+            offset = 0;
+        }
+        long position = logLength;
+        reserve(position + bytes);
+        MappedByteBuffer chunk = chunk(position);
+        chunk.putInt(offset + 4, key.length);
+        chunk.putInt(offset + 8, valueLength);
+        chunk.put(offset + RECORD_HEADER_BYTES, key);
+        if (value != null) {
+            chunk.put(offset + RECORD_HEADER_BYTES + key.length, value);
+        }
+        chunk.putInt(offset, crc(chunk, offset, (int) bytes));
+        logLength += bytes;
+        table.putLong(LOG_LENGTH_AT, logLength);
+        return position;
+    }
+
+    /* ------------------------------- Slots and records ------------------------------- */
+
+    /* FNV-1a over the bytes, then the finalizer of MurmurHash3, like OffHeapHashMap. */
+    private static int hash(byte[] key) {
+        int h = 0x811c9dc5;
+        for (byte b : key) {
+            h = (h ^ b) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private long refAt(int i) {
+        return table.getLong(HEADER_BYTES + i * SLOT_BYTES);
+    }
+
+    private int hashAt(int i) {
+        return table.getInt(HEADER_BYTES + i * SLOT_BYTES + 8);
+    }
+
+    private void setSlot(int i, long ref, int hash) {
+        table.putLong(HEADER_BYTES + i * SLOT_BYTES, ref);
+        table.putInt(HEADER_BYTES + i * SLOT_BYTES + 8, hash);
+    }
+
+    /* Return the slot of the key, or -1 if it is not in the table. */
+    private int indexOf(byte[] key, int hash) {
+        int i = hash & mask;
+        long ref;
+        while ((ref = refAt(i)) != 0) {
+            if (hashAt(i) == hash && keyEquals(ref - 1, key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /* Put the reference of a key that is not in the table, growing it first if it is full. */
+    private void insert(long ref, int hash) {
+        if (size >= threshold) {
+            try {
+                createTable((mask + 1) * 2);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int i = hash & mask;
+        while (refAt(i) != 0) {
+            i = (i + 1) & mask;
+        }
+        setSlot(i, ref, hash);
+        size++;
+        table.putInt(SIZE_AT, size);
+    }
+
+    private boolean keyEquals(long position, byte[] key) {
+        MappedByteBuffer chunk = chunk(position);
+        int offset = (int) (position % chunkBytes);
+        if (chunk.getInt(offset + 4) != key.length) {
+            return false;
+        }
+        offset += RECORD_HEADER_BYTES;
+        for (int j = 0; j < key.length; j++) {
+            if (chunk.get(offset + j) != key[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] readKey(long position) {
+        MappedByteBuffer chunk = chunk(position);
+        int offset = (int) (position % chunkBytes);
+        byte[] key = new byte[chunk.getInt(offset + 4)];
+        chunk.get(offset + RECORD_HEADER_BYTES, key);
+        return key;
+    }
+
+    private byte[] readValue(long position) {
+        MappedByteBuffer chunk = chunk(position);
+        int offset = (int) (position % chunkBytes);
+        int keyLength = chunk.getInt(offset + 4);
+        byte[] value = new byte[chunk.getInt(offset + 8)];
+        chunk.get(offset + RECORD_HEADER_BYTES + keyLength, value);
+        return value;
+    }
+
+    private void removeAt(int i) {
+        // Move back each following entry whose home slot is not in (i, j], it could not be found past the hole
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long next = refAt(j);
+            if (next == 0) {
+                break;
+            }
+            int home = hashAt(j) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                setSlot(i, next, hashAt(j));
+                i = j;
+            }
+        }
+        setSlot(i, 0, 0);
+        size--;
+        table.putInt(SIZE_AT, size);
+    }
+
+    /* ------------------------------- Map61B ------------------------------- */
+
+    /* Removes all the mappings from this map, and empties both files. */
+    @Override
+    public void clear() {
+        try {
+            size = 0;
+            logLength = 0;
+            chunks.clear();
+            log.truncate(0);
+            table = null;
+            createTable(DEFAULT_INITIAL_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(byte[] key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    /* Returns a copy of the value to which the specified key is mapped, or null if there is none. */
+    @Override
+    public byte[] get(byte[] key) {
+        int i = indexOf(key, hash(key));
+        return i >= 0 ? readValue(refAt(i) - 1) : null;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Associates the specified value with the specified key in this map, by appending them to the log.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    @Override
+    public void put(byte[] key, byte[] value) {
+        int hash = hash(key);
+        int i = indexOf(key, hash);
+        long ref = append(key, value) + 1;
+        if (i >= 0) {
+            setSlot(i, ref, hash);
+        } else {
+            insert(ref, hash);
+        }
+    }
+
+    /* Returns a Set of copies of the keys contained in this map. */
+    @Override
+    public Set<byte[]> keySet() {
+        Set<byte[]> keys = new HashSet<>();
+        for (byte[] key : this) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /* Removes the mapping for the specified key from this map if present, appending a tombstone to the log. */
+    @Override
+    public byte[] remove(byte[] key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        byte[] removedValue = readValue(refAt(i) - 1);
+        append(key, null);
+        removeAt(i);
+        return removedValue;
+    }
+
+    /* Removes the entry for the specified key only if its value has the same bytes as the specified value. */
+    @Override
+    public byte[] remove(byte[] key, byte[] value) {
+        int i = indexOf(key, hash(key));
+        if (i < 0 || !Arrays.equals(readValue(refAt(i) - 1), value)) {
+            return null;
+        }
+        return remove(key);
+    }
+
+    /* Iterates over copies of the keys. The map must not be changed while iterating. */
+    @Override
+    public Iterator<byte[]> iterator() {
+        return new Iterator<byte[]>() {
+            private int next = advance(0);
+
+            private int advance(int i) {
+                while (i <= mask && refAt(i) == 0) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next <= mask;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                byte[] key = readKey(refAt(next) - 1);
+                next = advance(next + 1);
+                return key;
+            }
+        };
+    }
+}
@@ -1,11 +1,22 @@
 package hashmap;
 
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 /**
  * A hash table-backed Map implementation. Provides amortized constant time
  * access to elements via get(), remove(), and put() in the best case.
- * Assumes null keys will never be inserted, and does not resize down upon remove().
+ * Assumes null keys will never be inserted. remove() halves the table once the load falls below minLoad,
+ * but never below the initial size, and trimToSize() shrinks it as far as the load factor allows.
+ * The table length is always a power of two: the hash codes are mixed so that all their bits
+ * reach the low ones, and the bucket of a key is found with a mask instead of a division.
+ * With incrementalResize, growing the table does not move every node at once: the old table is kept
+ * beside the new one and a few of its buckets are moved on each operation, like the dict of Redis,
+ * so no single put() pays for the whole rehash.
+ * putAll() grows the table once for all its entries, computeIfAbsent() and merge() hash their key once
+ * for the lookup and the insertion, and removeIf() unlinks the nodes bucket by bucket as it goes.
  **/
 /* Golden rules:
    1. hashTable is an array of buckets, each bucket is a collection of generic type.
@@ -34,45 +45,116 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
 
     /* A nested class for myHashMap iterator. */
     private class myHashMapIterator implements Iterator<K>{
-        private Iterator<K> keyIter;
+        /* The table being walked, and the index of the next bucket in it to look at. */
+        private Collection<Node>[] table;
+        private int index;
+        private Iterator<Node> nodeIter;
 
-        /* Simply use the iterator of keySet. */
+        /* Walk the buckets in place, then the old buckets that are not moved yet, instead of copying the keys.
+        So the map must not be changed while iterating, nor read with incrementalResize, which moves buckets. */
         public myHashMapIterator(){
-            keyIter = keySet().iterator();
+            table = buckets;
+            index = 0;
+            nodeIter = Collections.emptyIterator();
         }
 
         @Override
         public boolean hasNext(){
-            return keyIter.hasNext();
+            while (!nodeIter.hasNext()) {
+                if (index == table.length) {
+                    if (table != buckets || oldBuckets == null) {
+                        return false;
+                    }
+                    table = oldBuckets;
+                    index = rehashIndex;
+                    continue;
+                }
+                Collection<Node> bucket = table[index];
+                index++;
+                if (bucket != null && !bucket.isEmpty()) {
+                    nodeIter = bucket.iterator();
+                }
+            }
+            return true;
         }
 
         @Override
         public K next(){
-            return keyIter.next();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return nodeIter.next().key;
         }
     }
 
     private static final int DEFAULT_INITIAL_SIZE = 16;
     private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    /* The number of old buckets an incremental rehash moves on each operation.
+    The new table is twice as big, so it takes 0.75 * n puts to fill it up to the load factor again,
+    and moving 2 of the n old buckets per operation always finishes the rehash before that. */
+    private static final int REHASH_STEP = 2;
     private Collection<Node>[] buckets;
     private double loadFactor;
+    /* The low-water mark of the load. It is below half of loadFactor, so a halved table is
+    still below loadFactor and a doubled one still above minLoad: no size makes the table flip back and forth. */
+    private double minLoad;
+    /* The table does not shrink by itself below its initial length. */
+    private int minLength;
     private int size;// size is the actual number of objects that the map has.
+    /* True if the table grows by incremental rehash. */
+    private boolean incrementalResize;
+    /* The table being rehashed into buckets, or null if there is no rehash going on.
+    The old buckets before rehashIndex have been moved, and the others still hold their nodes. */
+    private Collection<Node>[] oldBuckets;
+    private int rehashIndex;
 
-    /* Constructors : default initialSize=16, loadFactor=0.75 */
+    /* Constructors : default initialSize=16, loadFactor=0.75, minLoad=loadFactor/4 */
     public MyHashMap() {
-        buckets = createTable(DEFAULT_INITIAL_SIZE);
-        loadFactor = DEFAULT_LOAD_FACTOR;
-        size = 0;
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
     }
 
     public MyHashMap(int initialSize) {
-        buckets = createTable(initialSize);
-        loadFactor = DEFAULT_LOAD_FACTOR;
+        this(initialSize, DEFAULT_LOAD_FACTOR);
     }
 
     public MyHashMap(int initialSize, double maxLoad) {
-        buckets = createTable(initialSize);
+        this(initialSize, maxLoad, maxLoad / 4);
+    }
+
+    /* A minLoad of 0 keeps the table from ever shrinking by itself. */
+    public MyHashMap(int initialSize, double maxLoad, double minLoad) {
+        if (minLoad * 2 >= maxLoad) {
+            throw new IllegalArgumentException("minLoad must be below half of maxLoad, not " + minLoad);
+        }
+        buckets = createTable(powerOfTwoAtLeast(initialSize));
+        minLength = buckets.length;
         loadFactor = maxLoad;
+        this.minLoad = minLoad;
+        size = 0;
+    }
+
+    public MyHashMap(int initialSize, double maxLoad, boolean incrementalResize) {
+        this(initialSize, maxLoad);
+        this.incrementalResize = incrementalResize;
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        int powerOfTwo = 1;
+        while (powerOfTwo < n) {
+            powerOfTwo <<= 1;
+        }
+        return powerOfTwo;
+    }
+
+    /* The finalizer of MurmurHash3: every bit of the hash code changes about half the bits of the result.
+    A mask only keeps the low bits, so without it keys like multiples of 64 would share a few buckets. */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
     }
 
     /* Returns a new node to be placed in a hash table bucket. */
@@ -85,17 +167,14 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         return new LinkedList<>();
     }
 
-    /* Returns a table to back our hash table.Guarantee all the elements is created by the factory method. */
+    /* Returns a table to back our hash table. Its buckets are all null:
+    a bucket is only created by the factory method when the first node is put in it. */
     private Collection<Node>[] createTable(int tableSize) {
         /* In Java, you cannot create an array of parameterized type.
         So, new Collection<Node>[size] is not allowed.
         Instead, you should create like this: new Collection[size].
         This means the elements of the array could be a Collection of any type */
-        Collection<Node>[] hashTable = new Collection[tableSize];
-        for (int i = 0; i < tableSize; i++) {
-            hashTable[i] = createBucket();
-        }
-        return hashTable;
+        return new Collection[tableSize];
     }
 
     // TODO: Implement the methods of the Map61B Interface below
@@ -105,33 +184,27 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         /* Every class that implements Collection interface has the method clear()
         which can clear all the element in the collection. */
         for (Collection<Node> bucket : buckets) {
-            bucket.clear();
+            if (bucket != null) {
+                bucket.clear();
+            }
         }
+        oldBuckets = null;
         size = 0;
     }
 
     /* Returns true if this map contains a mapping for the specified key. */
     @Override
     public boolean containsKey(K key) {
-        int index = Math.floorMod(key.hashCode(), buckets.length);
-        for (Node node : buckets[index]) {
-            if (node.key.equals(key)) {
-                return true;
-            }
-        }
-        return false;
+        rehashStep();
+        return findNode(bucketAt(hash(key)), key) != null;
     }
 
     /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
     @Override
     public V get(K key) {
-        int index = Math.floorMod(key.hashCode(), buckets.length);
-        for (Node node : buckets[index]) {
-            if (node.key.equals(key)) {
-                return node.value;
-            }
-        }
-        return null;
+        rehashStep();
+        Node node = findNode(bucketAt(hash(key)), key);
+        return node == null ? null : node.value;
     }
 
     /* Returns the number of key-value mappings in this map. */
@@ -144,44 +217,255 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
     If the map previously contained a mapping for the key, the old value is replaced. */
     @Override
     public void put(K key, V value) {
-        int index = Math.floorMod(key.hashCode(), buckets.length);
+        rehashStep();
+        int hash = hash(key);
         // If the key already exists, replace the old value
-        for (Node node : buckets[index]) {
-            if (node.key.equals(key)) {
-                node.value = value;
-                return;
-            }
+        Node node = findNode(bucketAt(hash), key);
+        if (node != null) {
+            node.value = value;
+            return;
         }
-        // Else, consider if we need resize, each time we resize it by doubling
+        addNode(hash, key, value);
+    }
+
+    /* Add a node for a key that is not in the map, given the hash of the key. */
+    private void addNode(int hash, K key, V value) {
+        // Consider if we need resize, each time we resize it by doubling
         if ((double) size / buckets.length >= loadFactor) {
             resize();
         }
-        index = Math.floorMod(key.hashCode(), buckets.length);
-        buckets[index].add(createNode(key, value));
+        createdBucketAt(hash).add(createNode(key, value));
         size++;
     }
 
-    /* Resize the buckets, therefore we should reassign all the node in it. */
+    /* Puts every entry of the given map into this one. The table is grown once, to hold them all
+    below the load factor, instead of doubling again and again as they come in. */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        finishRehash();
+        int length = powerOfTwoAtLeast((int) ((size + entries.size()) / loadFactor) + 1);
+        if (length > buckets.length) {
+            growTo(length);
+        }
+        for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /* Returns the value of the key, or else computes one, puts it unless it is null, and returns it. */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        rehashStep();
+        int hash = hash(key);
+        Node node = findNode(bucketAt(hash), key);
+        if (node != null) {
+            return node.value;
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            addNode(hash, key, value);
+        }
+        return value;
+    }
+
+    /* Puts the value if the key has none, or else the remapping of the old value and the given one,
+    and returns it. If that is null, the key is removed instead. */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        rehashStep();
+        int hash = hash(key);
+        Collection<Node> bucket = bucketAt(hash);
+        Node node = findNode(bucket, key);
+        if (node == null) {
+            addNode(hash, key, value);
+            return value;
+        }
+        V newValue = remappingFunction.apply(node.value, value);
+        if (newValue == null) {
+            bucket.remove(node);
+            size--;
+            shrinkIfSparse();
+        } else {
+            node.value = newValue;
+        }
+        return newValue;
+    }
+
+    /* Removes every entry whose key and value satisfy the filter, in one sweep of the buckets,
+    then shrinks the table once if it became sparse. Returns true if any was removed. */
+    @Override
+    public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        finishRehash();
+        int oldSize = size;
+        for (Collection<Node> bucket : buckets) {
+            if (bucket == null) {
+                continue;
+            }
+            Iterator<Node> iter = bucket.iterator();
+            while (iter.hasNext()) {
+                Node node = iter.next();
+                if (filter.test(node.key, node.value)) {
+                    iter.remove();
+                    size--;
+                }
+            }
+        }
+        shrinkIfSparse();
+        return size != oldSize;
+    }
+
+    /* Returns the node of the key in the bucket, or null if it is not there or the bucket is null.
+    A scan of the bucket by default: buckets that can find a key faster override it. */
+    protected Node findNode(Collection<Node> bucket, K key) {
+        if (bucket == null) {
+            return null;
+        }
+        for (Node node : bucket) {
+            if (node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /* Return the table the key belongs in. While rehashing, that is the old table until its old bucket is moved. */
+    private Collection<Node>[] tableOf(int hash) {
+        if (oldBuckets != null && (hash & (oldBuckets.length - 1)) >= rehashIndex) {
+            return oldBuckets;
+        }
+        return buckets;
+    }
+
+    /* Return the bucket of the hash, or null if no node was ever put in it. */
+    private Collection<Node> bucketAt(int hash) {
+        Collection<Node>[] table = tableOf(hash);
+        return table[hash & (table.length - 1)];
+    }
+
+    /* Return the bucket of the hash, creating it first if it is still null. */
+    private Collection<Node> createdBucketAt(int hash) {
+        Collection<Node>[] table = tableOf(hash);
+        int index = hash & (table.length - 1);
+        if (table[index] == null) {
+            table[index] = createBucket();
+        }
+        return table[index];
+    }
+
+    /* Move the next REHASH_STEP old buckets into the new table, if a rehash is going on. */
+    private void rehashStep() {
+        if (oldBuckets == null) {
+            return;
+        }
+        for (int i = 0; i < REHASH_STEP && rehashIndex < oldBuckets.length; i++) {
+            splitBucket(oldBuckets[rehashIndex], rehashIndex);
+            oldBuckets[rehashIndex] = null;
+            rehashIndex++;
+        }
+        if (rehashIndex == oldBuckets.length) {
+            oldBuckets = null;
+        }
+    }
+
+    /* Move the old bucket i into the new table, which is longer by a power of two and holds nothing yet at the
+    indexes equal to i modulo the old length. A node of bucket i can only go to one of those, i + oldLength
+    when the table doubles, so the old collection is kept as bucket i and only the nodes that go elsewhere
+    are relinked: no node is created, and no bucket but the ones they go to. */
+    private void splitBucket(Collection<Node> bucket, int i) {
+        if (bucket == null) {
+            return;
+        }
+        Iterator<Node> iter = bucket.iterator();
+        while (iter.hasNext()) {
+            Node node = iter.next();
+            int j = hash(node.key) & (buckets.length - 1);
+            if (j != i) {
+                iter.remove();
+                if (buckets[j] == null) {
+                    buckets[j] = createBucket();
+                }
+                buckets[j].add(node);
+            }
+        }
+        buckets[i] = bucket;
+    }
+
+    private void finishRehash() {
+        while (oldBuckets != null) {
+            rehashStep();
+        }
+    }
+
+    /* Resize the buckets, therefore we should reassign all the node in it.
+    With incrementalResize, only start a rehash: keep the old table and let rehashStep() move it bit by bit. */
     private void resize() {
-        Collection<Node>[] newBuckets = createTable(buckets.length * 2);
-        for (Collection<Node> bucket: buckets) {
-            for (Node node : bucket) {
-                int index = Math.floorMod(node.key.hashCode(), newBuckets.length);
-                newBuckets[index].add(createNode(node.key,node.value));
+        if (incrementalResize) {
+            finishRehash();
+            oldBuckets = buckets;
+            rehashIndex = 0;
+            buckets = createTable(buckets.length * 2);
+            return;
+        }
+        growTo(buckets.length * 2);
+    }
+
+    /* Move every node at once into a table of newLength, a power of two longer than the table. */
+    private void growTo(int newLength) {
+        Collection<Node>[] oldTable = buckets;
+        buckets = createTable(newLength);
+        for (int i = 0; i < oldTable.length; i++) {
+            splitBucket(oldTable[i], i);
+        }
+    }
+
+    /* Halve the table after a remove() if the load fell below minLoad, and again until it does not, since
+    removeIf() can take out most keys at once. Not while an incremental rehash is going on: that only happens
+    right after the table doubled, with a load of loadFactor / 2 at least. */
+    private void shrinkIfSparse() {
+        int length = buckets.length;
+        while (oldBuckets == null && length > minLength && size < length * minLoad) {
+            length /= 2;
+        }
+        if (length < buckets.length) {
+            shrink(length);
+        }
+    }
+
+    /* Fold the table into newLength buckets, a power of two no longer than it. The bucket i goes to
+    i & (newLength - 1), so the first old collection to land in a bucket is kept and the nodes of the others
+    are relinked into it. Empty collections are dropped. */
+    private void shrink(int newLength) {
+        finishRehash();
+        Collection<Node>[] oldTable = buckets;
+        buckets = createTable(newLength);
+        for (int i = 0; i < oldTable.length; i++) {
+            Collection<Node> bucket = oldTable[i];
+            if (bucket == null || bucket.isEmpty()) {
+                continue;
+            }
+            int j = i & (newLength - 1);
+            if (buckets[j] == null) {
+                buckets[j] = bucket;
+            } else {
+                buckets[j].addAll(bucket);
             }
         }
-        buckets = newBuckets;
     }
 
+    /* Shrinks the table to the shortest one that holds size() keys below the load factor, and drops
+    the empty bucket collections. The table can then be shorter than its initial size. */
+    public void trimToSize() {
+        int length = powerOfTwoAtLeast((int) (size / loadFactor) + 1);
+        shrink(Math.min(length, buckets.length));
+        minLength = Math.min(minLength, buckets.length);
+    }
 
     /* Returns a Set view of the keys contained in this map.*/
     @Override
     public Set<K> keySet(){
         Set<K> keys = new HashSet<>();
-        for(Collection<Node> bucket: buckets){
-            for(Node node: bucket){
-                keys.add(node.key);
-            }
+        for (K key : this) {
+            keys.add(key);
         }
         return  keys;
     }
@@ -189,31 +473,53 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
     /* Removes the mapping for the specified key from this map if present. Else, return null. */
     @Override
     public V remove(K key){
-        int index = Math.floorMod(key.hashCode(), buckets.length);
-        for(Node node: buckets[index]){
-            if(node.key.equals(key)){
-                V removedValue = node.value;
-                buckets[index].remove(node);
-                size--;
-                return removedValue;
-            }
+        rehashStep();
+        Collection<Node> bucket = bucketAt(hash(key));
+        Node node = findNode(bucket, key);
+        if (node == null) {
+            return null;
         }
-        return null;
+        bucket.remove(node);
+        size--;
+        shrinkIfSparse();
+        return node.value;
     }
 
     /* Removes the entry for the specified key only if it is currently mapped to the specified value. */
     @Override
     public V remove(K key, V value){
-        int index = Math.floorMod(key.hashCode(), buckets.length);
-        for(Node node: buckets[index]){
-            if(node.key.equals(key) && node.value.equals(value)){
-                V removedValue = node.value;
-                buckets[index].remove(node);
-                size--;
-                return removedValue;
+        rehashStep();
+        Collection<Node> bucket = bucketAt(hash(key));
+        Node node = findNode(bucket, key);
+        if (node == null || !node.value.equals(value)) {
+            return null;
+        }
+        bucket.remove(node);
+        size--;
+        shrinkIfSparse();
+        return node.value;
+    }
+
+    /* Returns the histogram of the bucket sizes: the element k is the number of buckets holding k nodes,
+    up to the largest bucket. While rehashing, the old buckets not moved yet are counted too. */
+    public int[] bucketOccupancy() {
+        int[] histogram = new int[1];
+        histogram = addOccupancy(histogram, buckets, 0);
+        if (oldBuckets != null) {
+            histogram = addOccupancy(histogram, oldBuckets, rehashIndex);
+        }
+        return histogram;
+    }
+
+    private int[] addOccupancy(int[] histogram, Collection<Node>[] table, int from) {
+        for (int i = from; i < table.length; i++) {
+            int n = table[i] == null ? 0 : table[i].size();
+            if (n >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, n + 1);
             }
+            histogram[n]++;
         }
-        return null;
+        return histogram;
     }
 
     @Override
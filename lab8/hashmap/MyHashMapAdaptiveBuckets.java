@@ -0,0 +1,225 @@
+package hashmap;
+
+import java.util.*;
+
+/**
+ * Hash Table with adaptive buckets
+ * A bucket is a small array, scanned like an ArrayList bucket, until it holds more than
+ * TREEIFY_THRESHOLD nodes. Then, if its keys are Comparable, it becomes a TreeMap from key to node,
+ * so a flood of keys with the same hash code costs O(log n) per lookup instead of O(n).
+ * It goes back to an array once it shrinks to UNTREEIFY_THRESHOLD nodes.
+ * Keys are only treeified if they are all of one class, whose compareTo agrees with equals.
+ */
+public class MyHashMapAdaptiveBuckets<K, V> extends MyHashMap<K, V> {
+    /* The thresholds of java.util.HashMap, apart enough that a bucket does not flip on every put and remove. */
+    static final int TREEIFY_THRESHOLD = 8;
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    /**
+     * Constructor that creates a backing array with default
+     * initial size and load factor
+     */
+    public MyHashMapAdaptiveBuckets() {
+        super();
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize
+     * and default load factor
+     *
+     * @param initialSize initial size of backing array
+     */
+    public MyHashMapAdaptiveBuckets(int initialSize) {
+        super(initialSize);
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize.
+     * The load factor (# items / # buckets) should always be <= loadFactor
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     */
+    public MyHashMapAdaptiveBuckets(int initialSize, double maxLoad) {
+        super(initialSize, maxLoad);
+    }
+
+    @Override
+    protected Collection<Node> createBucket() {
+        return new AdaptiveBucket();
+    }
+
+    @Override
+    protected Node findNode(Collection<Node> bucket, K key) {
+        if (bucket == null) {
+            return null;
+        }
+        return ((AdaptiveBucket) bucket).find(key);
+    }
+
+    /* A bucket that is either an array of nodes, or a tree of them once treeified, when tree is not null.
+       The array keeps the order of the nodes, so that an iterator can remove the node it is at
+       without skipping the next one. A tree that an iterator shrinks is untreeified by the next add() or remove(). */
+    class AdaptiveBucket extends AbstractCollection<Node> {
+        /* Holds Nodes, but an array of the inner class of a generic class cannot be created. */
+        private Object[] nodes = new Object[2];
+        private int count;
+        private TreeMap<K, Node> tree;
+        /* The one class of the keys in the tree. */
+        private Class<?> treeKeyClass;
+
+        /* Returns the node of the key, or null. */
+        Node find(K key) {
+            if (tree != null) {
+                // A key of another class cannot be in the tree, nor be compared to its keys
+                return key.getClass() == treeKeyClass ? tree.get(key) : null;
+            }
+            for (int i = 0; i < count; i++) {
+                if (node(i).key.equals(key)) {
+                    return node(i);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return tree != null ? tree.size() : count;
+        }
+
+        /* Adds a node whose key is not in the bucket yet. */
+        @Override
+        public boolean add(Node node) {
+            untreeifyIfSmall();
+            if (tree != null) {
+                if (node.key.getClass() == treeKeyClass) {
+                    tree.put(node.key, node);
+                    return true;
+                }
+                untreeify();
+            }
+            if (count == nodes.length) {
+                nodes = Arrays.copyOf(nodes, count * 2);
+            }
+            nodes[count] = node;
+            count++;
+            if (count > TREEIFY_THRESHOLD) {
+                treeify();
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            Node node = (Node) o;
+            if (tree != null) {
+                if (tree.get(node.key) != node) {
+                    return false;
+                }
+                tree.remove(node.key);
+                untreeifyIfSmall();
+                return true;
+            }
+            for (int i = 0; i < count; i++) {
+                if (nodes[i] == node) {
+                    removeAt(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            tree = null;
+            Arrays.fill(nodes, 0, count, null);
+            count = 0;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            if (tree != null) {
+                return tree.values().iterator();
+            }
+            return new Iterator<Node>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < count;
+                }
+
+                @Override
+                public Node next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    next++;
+                    return node(next - 1);
+                }
+
+                @Override
+                public void remove() {
+                    next--;
+                    removeAt(next);
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node node(int i) {
+            return (Node) nodes[i];
+        }
+
+        private void removeAt(int i) {
+            System.arraycopy(nodes, i + 1, nodes, i, count - i - 1);
+            count--;
+            nodes[count] = null;
+        }
+
+        /* Turn the array into a tree, if every key is of one Comparable class. */
+        private void treeify() {
+            Class<?> keyClass = node(0).key.getClass();
+            if (!Comparable.class.isAssignableFrom(keyClass)) {
+                return;
+            }
+            for (int i = 1; i < count; i++) {
+                if (node(i).key.getClass() != keyClass) {
+                    return;
+                }
+            }
+            tree = new TreeMap<>();
+            treeKeyClass = keyClass;
+            for (int i = 0; i < count; i++) {
+                tree.put(node(i).key, node(i));
+            }
+            clearArray();
+        }
+
+        private void untreeifyIfSmall() {
+            if (tree != null && tree.size() <= UNTREEIFY_THRESHOLD) {
+                untreeify();
+            }
+        }
+
+        /* Turn the tree back into an array. */
+        private void untreeify() {
+            int n = tree.size();
+            if (nodes.length < n + 1) {
+                nodes = Arrays.copyOf(nodes, n + 1);
+            }
+            for (Node node : tree.values()) {
+                nodes[count] = node;
+                count++;
+            }
+            tree = null;
+        }
+
+        /* Empty the array, but keep it for when the bucket is untreeified. */
+        private void clearArray() {
+            Arrays.fill(nodes, 0, count, null);
+            count = 0;
+        }
+    }
+}
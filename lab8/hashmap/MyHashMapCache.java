@@ -0,0 +1,269 @@
+package hashmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A bounded cache on top of MyHashMap. Every entry has a weight, 1 unless a weigher says otherwise,
+ * and once the total weight goes over maxWeight, put() evicts entries until it fits again.
+ * Which entry goes first is up to the subclass, see LRUCache and LFUCache. The entries are linked
+ * into lists of the subclass through their own prev and next fields, so an eviction is O(1).
+ * put() never evicts the entry it put while there is another one to evict, so a new entry is not
+ * thrown out for being new, and an entry heavier than maxWeight on its own is evicted right after the others.
+ * get() counts hits and misses and is an access of the entry; containsKey() is neither.
+ **/
+public abstract class MyHashMapCache<K, V> implements Map61B<K, V> {
+    /* An entry of the cache, and a node of the list it is linked in. */
+    protected class Entry {
+        final K key;
+        V value;
+        long weight;
+        Entry prev;
+        Entry next;
+
+        Entry(K k, V v, long w) {
+            key = k;
+            value = v;
+            weight = w;
+        }
+    }
+
+    /* A doubly linked list of entries, from the oldest to the newest. It is circular around a sentinel,
+     *  so linking and unlinking never check for the ends. */
+    protected class EntryList {
+        private final Entry sentinel = new Entry(null, null, 0);
+
+        EntryList() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        void addLast(Entry e) {
+            e.prev = sentinel.prev;
+            e.next = sentinel;
+            sentinel.prev.next = e;
+            sentinel.prev = e;
+        }
+
+        /* Returns the oldest entry, or null if the list is empty. */
+        Entry first() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+
+        /* Returns the entry after e, or null if e is the newest. */
+        Entry after(Entry e) {
+            return e.next == sentinel ? null : e.next;
+        }
+
+        boolean isEmpty() {
+            return sentinel.next == sentinel;
+        }
+
+        void clear() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+    }
+
+    /* Unlink the entry from whichever list it is in. */
+    protected void unlink(Entry e) {
+        e.prev.next = e.next;
+        e.next.prev = e.prev;
+        e.prev = null;
+        e.next = null;
+    }
+
+    private final MyHashMap<K, Entry> entries = new MyHashMap<>();
+    private final long maxWeight;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+    private final List<BiConsumer<? super K, ? super V>> evictionListeners = new ArrayList<>();
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /* A cache of at most maxEntries entries. */
+    protected MyHashMapCache(int maxEntries) {
+        this(maxEntries, (k, v) -> 1);
+    }
+
+    /* A cache whose entries weigh at most maxWeight together, for instance in bytes. */
+    protected MyHashMapCache(long maxWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /* Returns a new entry. Subclasses that keep more in an entry override it. */
+    protected Entry createEntry(K key, V value, long entryWeight) {
+        return new Entry(key, value, entryWeight);
+    }
+
+    /* Link a new entry into the lists of the subclass. */
+    protected abstract void added(Entry e);
+
+    /* Move an entry in the lists of the subclass, after a get() or a put() of its key. */
+    protected abstract void accessed(Entry e);
+
+    /* Unlink an entry that is removed or evicted. */
+    protected abstract void removed(Entry e);
+
+    /* Returns the entry to evict next other than spared. Only called if there is such an entry. */
+    protected abstract Entry victim(Entry spared);
+
+    /* Forget every entry at once. */
+    protected abstract void cleared();
+
+    /* Calls the listener with the key and value of every entry evicted from now on.
+     *  Entries taken out by remove() or clear() are not evicted. */
+    public void addEvictionListener(BiConsumer<? super K, ? super V> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /* Returns the number of get() calls that found their key. */
+    public long hitCount() {
+        return hits;
+    }
+
+    /* Returns the number of get() calls that did not find their key. */
+    public long missCount() {
+        return misses;
+    }
+
+    /* Returns the number of entries evicted. */
+    public long evictionCount() {
+        return evictions;
+    }
+
+    /* Returns the total weight of the entries. */
+    public long weight() {
+        return weight;
+    }
+
+    /* Removes all the mappings from this map. */
+    @Override
+    public void clear() {
+        entries.clear();
+        cleared();
+        weight = 0;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(K key) {
+        return entries.containsKey(key);
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
+    @Override
+    public V get(K key) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        accessed(e);
+        return e.value;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /* Associates the specified value with the specified key in this map, then evicts entries
+    until they fit in maxWeight. If the map previously contained a mapping for the key, the old value is replaced. */
+    @Override
+    public void put(K key, V value) {
+        long entryWeight = weigher.applyAsLong(key, value);
+        Entry e = entries.get(key);
+        if (e != null) {
+            weight += entryWeight - e.weight;
+            e.value = value;
+            e.weight = entryWeight;
+            accessed(e);
+        } else {
+            e = createEntry(key, value, entryWeight);
+            entries.put(key, e);
+            weight += entryWeight;
+            added(e);
+        }
+        while (weight > maxWeight && entries.size() > 1) {
+            evict(victim(e));
+        }
+        if (weight > maxWeight) {
+            evict(e);
+        }
+    }
+
+    private void evict(Entry e) {
+        remove(e);
+        evictions++;
+        for (BiConsumer<? super K, ? super V> listener : evictionListeners) {
+            listener.accept(e.key, e.value);
+        }
+    }
+
+    /* Returns a Set of the keys contained in this map, in no particular order. */
+    @Override
+    public Set<K> keySet() {
+        return entries.keySet();
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @Override
+    public V remove(K key) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            return null;
+        }
+        remove(e);
+        return e.value;
+    }
+
+    /* Removes the entry for the specified key only if it is currently mapped to the specified value. */
+    @Override
+    public V remove(K key, V value) {
+        Entry e = entries.get(key);
+        if (e == null || !e.value.equals(value)) {
+            return null;
+        }
+        remove(e);
+        return e.value;
+    }
+
+    /* Removes every entry the filter accepts, and returns whether there was one. The entries are tested
+     *  without get(), so it is not an access of them and counts no hits. */
+    @Override
+    public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        List<Entry> matching = new ArrayList<>();
+        for (K key : entries) {
+            Entry e = entries.get(key);
+            if (filter.test(e.key, e.value)) {
+                matching.add(e);
+            }
+        }
+        for (Entry e : matching) {
+            remove(e);
+        }
+        return !matching.isEmpty();
+    }
+
+    private void remove(Entry e) {
+        entries.remove(e.key);
+        removed(e);
+        weight -= e.weight;
+    }
+
+    /* Iterates over the keys in no particular order. Iterating is not an access of the entries. */
+    @Override
+    public Iterator<K> iterator() {
+        return entries.iterator();
+    }
+}
@@ -0,0 +1,374 @@
+package hashmap;
+
+import java.util.*;
+
+/**
+ * A hash table-backed Map implementation with bucketized cuckoo hashing. Every key has two buckets of
+ * SLOTS slots, picked by two hash functions of its hash code, and it is always in one of them or in a
+ * small stash. So get() reads at most two buckets and the stash, however full the table is, and the
+ * table can be filled to maxLoad=0.9 by default, where linear probing would be slow.
+ * put() may have to move other keys to their other bucket to make room; it is amortized O(1).
+ * Assumes null keys will never be inserted, and does not resize down upon remove().
+ **/
+/* Cuckoo hashing:
+   1. The slots of bucket b are b * SLOTS to b * SLOTS + SLOTS - 1 of the arrays, so a bucket is read in one go.
+   The first bucket of a hash is its low bits, the second one its high bits after a multiplication, so the two
+   are independent of each other.
+   2. put() takes an empty slot of either bucket. If both are full, it kicks a random key out of one of them and
+   places that key in its other bucket the same way, up to MAX_KICKS times. The key still in hand then goes to
+   the stash, which a lookup scans after the two buckets. A stash of more than MAX_STASH keys grows the table.
+   3. Keys with equal hash codes have the same two buckets, so past 2 * SLOTS of them the rest stay in the stash:
+   a table at most half full does not grow for them, since growing would not separate them. Those are the only
+   keys a get() looks for past its two buckets and MAX_STASH slots of the stash.
+   4. remove() empties the slot, then puts back in the table any stashed key that has room in its buckets. */
+public class MyHashMapCuckoo<K, V> implements Map61B<K, V> {
+    /* A nested class for the iterator, which walks the slots and then the stash. */
+    private class cuckooIterator implements Iterator<K> {
+        private int index;
+
+        public cuckooIterator() {
+            index = nextIndex(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length + stashSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = (K) (index < keys.length ? keys[index] : stashKeys[index - keys.length]);
+            index = nextIndex(index + 1);
+            return key;
+        }
+
+        /* Return the first occupied slot at or after i, counting the stash after the table. */
+        private int nextIndex(int i) {
+            while (i < keys.length && keys[i] == null) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private static final int SLOTS = 4;
+    private static final int MAX_KICKS = 500;
+    private static final int MAX_STASH = 8;
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.9;
+    /* keys[i] and values[i] are an entry, and hashes[i] is the spread hash of keys[i]. A null key is an empty slot. */
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    /* The number of buckets is a power of two, 2^bucketBits. */
+    private int bucketBits;
+    private int bucketMask;
+    /* Entries that found no slot, in the first stashSize places of the stash arrays. */
+    private Object[] stashKeys = new Object[MAX_STASH];
+    private Object[] stashValues = new Object[MAX_STASH];
+    private int[] stashHashes = new int[MAX_STASH];
+    private int stashSize;
+    private double loadFactor;
+    private int threshold;
+    private int size;
+    /* The state of the xorshift generator that picks which key to kick out. */
+    private int random = 61;
+
+    /* Constructors : default initialSize=16, loadFactor=0.9 */
+    public MyHashMapCuckoo() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public MyHashMapCuckoo(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public MyHashMapCuckoo(int initialSize, double maxLoad) {
+        loadFactor = maxLoad;
+        int bits = 1;
+        while ((SLOTS << bits) < initialSize) {
+            bits++;
+        }
+        createTable(bits);
+    }
+
+    /* Replace the arrays with empty ones of 2^bits buckets. */
+    private void createTable(int bits) {
+        int tableSize = SLOTS << bits;
+        keys = new Object[tableSize];
+        values = new Object[tableSize];
+        hashes = new int[tableSize];
+        bucketBits = bits;
+        bucketMask = (1 << bits) - 1;
+        threshold = Math.min((int) (tableSize * loadFactor), tableSize - 1);
+    }
+
+    /* The finalizer of MurmurHash3, so that both hash functions get well mixed bits. */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /* Return the first slot of the first bucket of the hash. */
+    private int firstBucket(int h) {
+        return (h & bucketMask) * SLOTS;
+    }
+
+    /* Return the first slot of the second bucket of the hash. */
+    private int secondBucket(int h) {
+        return ((h * 0x9E3779B9) >>> (32 - bucketBits)) * SLOTS;
+    }
+
+    /* Return the slot of the key in the bucket starting at b, or -1. */
+    private int indexIn(int b, Object key, int h) {
+        for (int i = b; i < b + SLOTS; i++) {
+            if (hashes[i] == h && keys[i] != null && key.equals(keys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* Return the slot of the key, keys.length plus its place in the stash if it is stashed, or -1. */
+    private int indexOf(Object key, int h) {
+        int i = indexIn(firstBucket(h), key, h);
+        if (i < 0) {
+            i = indexIn(secondBucket(h), key, h);
+        }
+        for (int j = 0; i < 0 && j < stashSize; j++) {
+            if (stashHashes[j] == h && key.equals(stashKeys[j])) {
+                i = keys.length + j;
+            }
+        }
+        return i;
+    }
+
+    /* Return an empty slot in the bucket starting at b, or -1. */
+    private int emptyIn(int b) {
+        for (int i = b; i < b + SLOTS; i++) {
+            if (keys[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* Removes all the mappings from this map. */
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(stashKeys, null);
+        Arrays.fill(stashValues, null);
+        stashSize = 0;
+        size = 0;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        return (V) (i < keys.length ? values[i] : stashValues[i - keys.length]);
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Associates the specified value with the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    @Override
+    public void put(K key, V value) {
+        int h = hash(key);
+        int i = indexOf(key, h);
+        if (i >= keys.length) {
+            stashValues[i - keys.length] = value;
+            return;
+        } else if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        if (size >= threshold) {
+            resize();
+        }
+        insert(h, key, value);
+        size++;
+        if (stashSize > MAX_STASH && size > keys.length / 2) {
+            resize();
+        }
+    }
+
+    /* Place an entry that is not in the map yet, kicking other entries to their other bucket if needed. */
+    private void insert(int h, Object key, Object value) {
+        int b = firstBucket(h);
+        int i = emptyIn(b);
+        if (i < 0) {
+            b = secondBucket(h);
+            i = emptyIn(b);
+        }
+        for (int kicks = 0; i < 0 && kicks < MAX_KICKS; kicks++) {
+            // Swap the entry in hand with a random one of bucket b, and try the other bucket of the one taken out
+            random ^= random << 13;
+            random ^= random >>> 17;
+            random ^= random << 5;
+            i = b + (random & (SLOTS - 1));
+            int tempHash = hashes[i];
+            Object tempKey = keys[i];
+            Object tempValue = values[i];
+            hashes[i] = h;
+            keys[i] = key;
+            values[i] = value;
+            h = tempHash;
+            key = tempKey;
+            value = tempValue;
+            b = firstBucket(h) == b ? secondBucket(h) : firstBucket(h);
+            i = emptyIn(b);
+        }
+        if (i < 0) {
+            stash(h, key, value);
+            return;
+        }
+        hashes[i] = h;
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void stash(int h, Object key, Object value) {
+        if (stashSize == stashKeys.length) {
+            stashKeys = Arrays.copyOf(stashKeys, stashSize * 2);
+            stashValues = Arrays.copyOf(stashValues, stashSize * 2);
+            stashHashes = Arrays.copyOf(stashHashes, stashSize * 2);
+        }
+        stashHashes[stashSize] = h;
+        stashKeys[stashSize] = key;
+        stashValues[stashSize] = value;
+        stashSize++;
+    }
+
+    /* Double the buckets and put every entry back, the stashed ones too. The hashes are stored, so
+     * no hashCode() is called again. */
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        Object[] oldStashKeys = Arrays.copyOf(stashKeys, stashSize);
+        Object[] oldStashValues = Arrays.copyOf(stashValues, stashSize);
+        int[] oldStashHashes = Arrays.copyOf(stashHashes, stashSize);
+        Arrays.fill(stashKeys, null);
+        Arrays.fill(stashValues, null);
+        stashSize = 0;
+        createTable(bucketBits + 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+        for (int j = 0; j < oldStashKeys.length; j++) {
+            insert(oldStashHashes[j], oldStashKeys[j], oldStashValues[j]);
+        }
+    }
+
+    /* Returns a Set view of the keys contained in this map.*/
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        for (K key : this) {
+            keySet.add(key);
+        }
+        return keySet;
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @Override
+    public V remove(K key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /* Removes the entry for the specified key only if it is currently mapped to the specified value. */
+    @Override
+    public V remove(K key, V value) {
+        int i = indexOf(key, hash(key));
+        if (i < 0 || !(i < keys.length ? values[i] : stashValues[i - keys.length]).equals(value)) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /* Remove the entry in slot i, or in the stash, then move back into the table the stashed entries that fit. */
+    @SuppressWarnings("unchecked")
+    private V removeAt(int i) {
+        V removedValue;
+        if (i >= keys.length) {
+            removedValue = (V) stashValues[i - keys.length];
+            unstash(i - keys.length);
+        } else {
+            removedValue = (V) values[i];
+            keys[i] = null;
+            values[i] = null;
+            for (int j = stashSize - 1; j >= 0; j--) {
+                int h = stashHashes[j];
+                int empty = emptyIn(firstBucket(h));
+                if (empty < 0) {
+                    empty = emptyIn(secondBucket(h));
+                }
+                if (empty >= 0) {
+                    hashes[empty] = h;
+                    keys[empty] = stashKeys[j];
+                    values[empty] = stashValues[j];
+                    unstash(j);
+                }
+            }
+        }
+        size--;
+        return removedValue;
+    }
+
+    /* Remove place j of the stash, moving the last stashed entry into it. */
+    private void unstash(int j) {
+        stashSize--;
+        stashHashes[j] = stashHashes[stashSize];
+        stashKeys[j] = stashKeys[stashSize];
+        stashValues[j] = stashValues[stashSize];
+        stashKeys[stashSize] = null;
+        stashValues[stashSize] = null;
+    }
+
+    /* Returns the number of entries in the stash, which a get() may have to scan after its two buckets. */
+    public int stashSize() {
+        return stashSize;
+    }
+
+    /* Returns the fraction of the slots of the table that hold an entry. */
+    public double load() {
+        return (double) (size - stashSize) / keys.length;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new cuckooIterator();
+    }
+}
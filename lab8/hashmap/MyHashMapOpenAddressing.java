@@ -0,0 +1,260 @@
+package hashmap;
+
+import java.util.*;
+
+/**
+ * A hash table-backed Map implementation with open addressing. Unlike MyHashMap there are no
+ * buckets and no Node objects: the keys and values live in two parallel arrays, so an entry costs
+ * two array slots and an int for its hash, and a lookup reads consecutive slots instead of
+ * following pointers. Collisions are resolved by Robin Hood linear probing, and remove() shifts
+ * the following entries back instead of leaving tombstones.
+ * Assumes null keys will never be inserted, and does not resize down upon remove().
+ **/
+/* Robin Hood probing:
+   1. The distance of an entry is how far its slot is from its home slot, hash & mask.
+   2. When put() walks past an entry with a smaller distance than the one being placed, they swap,
+   and the walk goes on with the entry that was taken out. So the distances stay even, and a lookup
+   can stop as soon as it sees an entry with a smaller distance than its own: the key would have been there.
+   3. remove() moves every following entry with a distance above 0 one slot back, until an empty slot
+   or an entry in its home slot. The table is then exactly as if the removed key had never been put,
+   so there is nothing like a tombstone to clean up. */
+public class MyHashMapOpenAddressing<K, V> implements Map61B<K, V> {
+    /* A nested class for the iterator, which walks the key array directly. */
+    private class openAddressingIterator implements Iterator<K> {
+        private int index;
+
+        public openAddressingIterator() {
+            index = nextIndex(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = (K) keys[index];
+            index = nextIndex(index + 1);
+            return key;
+        }
+
+        /* Return the first occupied slot at or after i, or keys.length if there is none. */
+        private int nextIndex(int i) {
+            while (i < keys.length && keys[i] == null) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    /* keys[i] and values[i] are an entry, and hashes[i] is the spread hash of keys[i]. A null key is an empty slot. */
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    /* The table length is a power of two, so the home slot of a hash is hash & mask. */
+    private int mask;
+    private double loadFactor;
+    /* The table grows once size reaches threshold. It is always below the table length, so there is an empty slot. */
+    private int threshold;
+    private int size;
+
+    /* Constructors : default initialSize=16, loadFactor=0.75 */
+    public MyHashMapOpenAddressing() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public MyHashMapOpenAddressing(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public MyHashMapOpenAddressing(int initialSize, double maxLoad) {
+        loadFactor = maxLoad;
+        createTable(tableSizeFor(initialSize));
+    }
+
+    /* Return the smallest power of two that is at least n, and at least 2. */
+    private static int tableSizeFor(int n) {
+        int tableSize = 2;
+        while (tableSize < n) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    /* Replace the arrays with empty ones of the given power of two length. */
+    private void createTable(int tableSize) {
+        keys = new Object[tableSize];
+        values = new Object[tableSize];
+        hashes = new int[tableSize];
+        mask = tableSize - 1;
+        threshold = Math.min((int) (tableSize * loadFactor), tableSize - 1);
+    }
+
+    /* Spread the high bits of the hash code into the low bits, which are the only ones the mask keeps. */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /* Return how far slot i is from the home slot of the given hash. */
+    private int distance(int i, int hash) {
+        return (i - hash) & mask;
+    }
+
+    /* Return the slot of the key, or -1 if it is not in the map. */
+    private int indexOf(Object key) {
+        int h = hash(key);
+        int i = h & mask;
+        for (int dist = 0; keys[i] != null && distance(i, hashes[i]) >= dist; dist++) {
+            if (hashes[i] == h && key.equals(keys[i])) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /* Removes all the mappings from this map. */
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Associates the specified value with the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    @Override
+    public void put(K key, V value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        if (size >= threshold) {
+            resize();
+        }
+        insert(hash(key), key, value);
+        size++;
+    }
+
+    /* Place an entry that is not in the map yet, taking the slot of any entry closer to its home than this one. */
+    private void insert(int h, Object key, Object value) {
+        int i = h & mask;
+        int dist = 0;
+        while (keys[i] != null) {
+            int existingDist = distance(i, hashes[i]);
+            if (existingDist < dist) {
+                // Swap in the entry being placed, and go on placing the one taken out
+                int tempHash = hashes[i];
+                Object tempKey = keys[i];
+                Object tempValue = values[i];
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                h = tempHash;
+                key = tempKey;
+                value = tempValue;
+                dist = existingDist;
+            }
+            i = (i + 1) & mask;
+            dist++;
+        }
+        hashes[i] = h;
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /* Double the table and put every entry back. The hashes are stored, so no hashCode() is called again. */
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        createTable(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /* Returns a Set view of the keys contained in this map.*/
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        for (K key : this) {
+            keySet.add(key);
+        }
+        return keySet;
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @Override
+    public V remove(K key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /* Removes the entry for the specified key only if it is currently mapped to the specified value. */
+    @Override
+    public V remove(K key, V value) {
+        int i = indexOf(key);
+        if (i < 0 || !values[i].equals(value)) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /* Remove the entry in slot i, and shift the entries after it back by one until one is in its home slot. */
+    @SuppressWarnings("unchecked")
+    private V removeAt(int i) {
+        V removedValue = (V) values[i];
+        int next = (i + 1) & mask;
+        while (keys[next] != null && distance(next, hashes[next]) > 0) {
+            hashes[i] = hashes[next];
+            keys[i] = keys[next];
+            values[i] = values[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        return removedValue;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new openAddressingIterator();
+    }
+}
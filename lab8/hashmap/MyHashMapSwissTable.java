@@ -0,0 +1,300 @@
+package hashmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * A hash table-backed Map implementation in the style of SwissTable. Next to the keys and values there is
+ * a control byte per slot, which holds 7 bits of the hash of its key, or says the slot is empty or deleted.
+ * A lookup reads the control bytes of a group of GROUP slots as one long and finds every slot whose 7 bits
+ * match in a few arithmetic operations, so it calls equals() on about one key, and a miss usually ends in
+ * the first group without touching a key at all.
+ * Assumes null keys will never be inserted, and does not resize down upon remove().
+ **/
+/* Layout:
+   1. The hash of a key is split in two: h1, its top 25 bits, picks the group where probing starts, and h2,
+   its low 7 bits, goes in the control byte. A full slot has a control byte of 0 to 127, EMPTY and DELETED
+   have their high bit set.
+   2. Groups are aligned on GROUP slots, and probing goes to the next group, then two groups further, then
+   three..., which visits every group since their number is a power of two. A lookup stops at the first group
+   with an EMPTY slot: put() would have placed the key there, or before.
+   3. remove() leaves an EMPTY slot if its group already has one, since then no probe ever went past the group.
+   Otherwise it leaves DELETED, which put() can reuse. DELETED slots count against the load, and once there is
+   no room left, a table whose live keys would fit in half of it is rebuilt at the same size, not doubled. */
+public class MyHashMapSwissTable<K, V> implements Map61B<K, V> {
+    /* A nested class for the iterator, which walks the control bytes. */
+    private class swissTableIterator implements Iterator<K> {
+        private int index;
+
+        public swissTableIterator() {
+            index = nextIndex(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = (K) keys[index];
+            index = nextIndex(index + 1);
+            return key;
+        }
+
+        /* Return the first full slot at or after i, or keys.length if there is none. */
+        private int nextIndex(int i) {
+            while (i < keys.length && ctrl[i] < 0) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private static final int GROUP = 8;
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+    /* Reads 8 control bytes as a long, the first one in its lowest byte. */
+    private static final VarHandle GROUP_BYTES =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.875;
+    /* keys[i] and values[i] are an entry if ctrl[i] is the h2 of keys[i]. */
+    private byte[] ctrl;
+    private Object[] keys;
+    private Object[] values;
+    private int mask;
+    private double loadFactor;
+    /* How many EMPTY slots put() can still fill before the table is rebuilt. */
+    private int growthLeft;
+    private int size;
+
+    /* Constructors : default initialSize=16, loadFactor=0.875 */
+    public MyHashMapSwissTable() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public MyHashMapSwissTable(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public MyHashMapSwissTable(int initialSize, double maxLoad) {
+        loadFactor = maxLoad;
+        int tableSize = GROUP;
+        while (tableSize < initialSize) {
+            tableSize <<= 1;
+        }
+        createTable(tableSize);
+    }
+
+    /* Replace the arrays with empty ones of the given power of two length. */
+    private void createTable(int tableSize) {
+        ctrl = new byte[tableSize];
+        Arrays.fill(ctrl, EMPTY);
+        keys = new Object[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+        growthLeft = Math.min((int) (tableSize * loadFactor), tableSize - 1);
+    }
+
+    /* The finalizer of MurmurHash3, so that both h1 and h2 get well mixed bits. */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /* Return the control bytes of the group starting at slot g. */
+    private long group(int g) {
+        return (long) GROUP_BYTES.get(ctrl, g);
+    }
+
+    /* Return the high bit of every byte of the group that equals h2. A byte just above a match may be
+     * reported too, so the keys are still compared. */
+    private static long match(long group, int h2) {
+        long x = group ^ (LSBS * h2);
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    /* Return the high bit of every EMPTY byte of the group: the only one with its high bit set and bit 1 clear. */
+    private static long matchEmpty(long group) {
+        return group & ~(group << 6) & MSBS;
+    }
+
+    /* Return the slot in the group of the lowest high bit of a match. */
+    private static int slotOf(int g, long match) {
+        return g + (Long.numberOfTrailingZeros(match) >>> 3);
+    }
+
+    /* Return the slot of the key, or -1 if it is not in the map. */
+    private int indexOf(Object key, int h) {
+        int h2 = h & 0x7F;
+        int g = (h >>> 7) & mask & ~(GROUP - 1);
+        for (int step = GROUP; ; step += GROUP) {
+            long group = group(g);
+            for (long m = match(group, h2); m != 0; m &= m - 1) {
+                int i = slotOf(g, m);
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+            if (matchEmpty(group) != 0) {
+                return -1;
+            }
+            g = (g + step) & mask;
+        }
+    }
+
+    /* Return the first EMPTY or DELETED slot on the probe sequence of the hash. */
+    private int firstFree(int h) {
+        int g = (h >>> 7) & mask & ~(GROUP - 1);
+        for (int step = GROUP; ; step += GROUP) {
+            long free = group(g) & MSBS;
+            if (free != 0) {
+                return slotOf(g, free);
+            }
+            g = (g + step) & mask;
+        }
+    }
+
+    /* Removes all the mappings from this map. */
+    @Override
+    public void clear() {
+        Arrays.fill(ctrl, EMPTY);
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        growthLeft = Math.min((int) (ctrl.length * loadFactor), ctrl.length - 1);
+        size = 0;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int i = indexOf(key, hash(key));
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Associates the specified value with the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced. */
+    @Override
+    public void put(K key, V value) {
+        int h = hash(key);
+        int i = indexOf(key, h);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        i = firstFree(h);
+        if (growthLeft == 0 && ctrl[i] == EMPTY) {
+            rehash();
+            i = firstFree(h);
+        }
+        if (ctrl[i] == EMPTY) {
+            growthLeft--;
+        }
+        insertAt(i, h, key, value);
+        size++;
+    }
+
+    private void insertAt(int i, int h, Object key, Object value) {
+        ctrl[i] = (byte) (h & 0x7F);
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /* Put every entry back in a table without DELETED slots, of the same length if the entries fill at most
+     * half of it, or else twice as long. */
+    private void rehash() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldCtrl = ctrl;
+        createTable(size * 2 <= oldCtrl.length * loadFactor ? oldCtrl.length : oldCtrl.length * 2);
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) {
+                int h = hash(oldKeys[i]);
+                insertAt(firstFree(h), h, oldKeys[i], oldValues[i]);
+                growthLeft--;
+            }
+        }
+    }
+
+    /* Returns a Set view of the keys contained in this map.*/
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = new HashSet<>();
+        for (K key : this) {
+            keySet.add(key);
+        }
+        return keySet;
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @Override
+    public V remove(K key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /* Removes the entry for the specified key only if it is currently mapped to the specified value. */
+    @Override
+    public V remove(K key, V value) {
+        int i = indexOf(key, hash(key));
+        if (i < 0 || !values[i].equals(value)) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /* Remove the entry in slot i, leaving it EMPTY if no probe can have gone past its group. */
+    @SuppressWarnings("unchecked")
+    private V removeAt(int i) {
+        V removedValue = (V) values[i];
+        if (matchEmpty(group(i & ~(GROUP - 1))) != 0) {
+            ctrl[i] = EMPTY;
+            growthLeft++;
+        } else {
+            ctrl[i] = DELETED;
+        }
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        return removedValue;
+    }
+
+    /* Returns the fraction of the slots that hold an entry. */
+    public double load() {
+        return (double) size / ctrl.length;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new swissTableIterator();
+    }
+}
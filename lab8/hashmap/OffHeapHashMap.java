@@ -0,0 +1,384 @@
+package hashmap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A hash map from byte arrays to byte arrays that keeps everything in direct ByteBuffers, out of the heap.
+ * The heap only holds the map object and one ByteBuffer per slab, so the garbage collector has
+ * nothing to trace however many entries there are. Keys are compared by their bytes.
+ * get(), keySet() and iterator() return copies: new arrays that, like every byte[], are only equal
+ * to themselves, so compare them with Arrays.equals.
+ * Assumes null keys and values will never be inserted, and does not resize down upon remove().
+ **/
+/* Layout:
+   1. The slots are one direct buffer of SLOT_BYTES per slot: the reference of an entry, 0 if the slot is empty,
+   and the hash of its key. It is open addressed with linear probing over a power-of-two length, and remove()
+   moves back the following entries of the run like IntIntHashMap, so there are no tombstones.
+   2. The entries are bump-allocated in slabs, direct buffers of SLAB_BYTES, or of one entry if it is bigger.
+   An entry is its key length, its value length, the key and then the value. Its reference is
+   (slab index + 1) << 32 | offset, which is never 0.
+   3. A removed entry, or a value replaced by a longer one, leaves dead bytes in its slab.
+   Once they are half of the bytes allocated, the live entries are copied into new slabs. */
+public class OffHeapHashMap implements Map61B<byte[], byte[]> {
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int SLOT_BYTES = 12;
+    private static final int SLAB_BYTES = 1 << 20;
+    private static final int ENTRY_HEADER_BYTES = 8;
+    private ByteBuffer slots;
+    private int mask;
+    private double loadFactor;
+    /* The table grows once size reaches threshold, which is always below its length. */
+    private int threshold;
+    private int size;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    /* The bytes allocated in all the slabs, and those of them that are dead. */
+    private long allocatedBytes;
+    private long deadBytes;
+
+    /* Constructors : default initialSize=16, loadFactor=0.75 */
+    public OffHeapHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public OffHeapHashMap(int initialSize) {
+        this(initialSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public OffHeapHashMap(int initialSize, double maxLoad) {
+        loadFactor = maxLoad;
+        int length = 2;
+        while (length < initialSize) {
+            length <<= 1;
+        }
+        createTable(length);
+    }
+
+    private void createTable(int length) {
+        slots = ByteBuffer.allocateDirect(length * SLOT_BYTES);
+        mask = length - 1;
+        threshold = Math.min((int) (length * loadFactor), length - 1);
+    }
+
+    /* FNV-1a over the bytes, then the finalizer of MurmurHash3, since FNV leaves the low bits weak. */
+    private static int hash(byte[] key) {
+        int h = 0x811c9dc5;
+        for (byte b : key) {
+            h = (h ^ b) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /* ------------------------------- Slots ------------------------------- */
+
+    private long refAt(int i) {
+        return slots.getLong(i * SLOT_BYTES);
+    }
+
+    private int hashAt(int i) {
+        return slots.getInt(i * SLOT_BYTES + 8);
+    }
+
+    private void setSlot(int i, long ref, int hash) {
+        slots.putLong(i * SLOT_BYTES, ref);
+        slots.putInt(i * SLOT_BYTES + 8, hash);
+    }
+
+    /* Return the slot of the key, or -1 if it is not in the table. */
+    private int indexOf(byte[] key, int hash) {
+        int i = hash & mask;
+        long ref;
+        while ((ref = refAt(i)) != 0) {
+            if (hashAt(i) == hash && keyEquals(ref, key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /* ------------------------------- Entries ------------------------------- */
+
+    private ByteBuffer slab(long ref) {
+        return slabs.get((int) (ref >>> 32) - 1);
+    }
+
+    private static int offset(long ref) {
+        return (int) ref;
+    }
+
+    private int keyLength(long ref) {
+        return slab(ref).getInt(offset(ref));
+    }
+
+    private int valueLength(long ref) {
+        return slab(ref).getInt(offset(ref) + 4);
+    }
+
+    private boolean keyEquals(long ref, byte[] key) {
+        ByteBuffer slab = slab(ref);
+        int start = offset(ref);
+        if (slab.getInt(start) != key.length) {
+            return false;
+        }
+        start += ENTRY_HEADER_BYTES;
+        for (int j = 0; j < key.length; j++) {
+            if (slab.get(start + j) != key[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] readKey(long ref) {
+        byte[] key = new byte[keyLength(ref)];
+        slab(ref).get(offset(ref) + ENTRY_HEADER_BYTES, key);
+        return key;
+    }
+
+    private byte[] readValue(long ref) {
+        byte[] value = new byte[valueLength(ref)];
+        slab(ref).get(offset(ref) + ENTRY_HEADER_BYTES + keyLength(ref), value);
+        return value;
+    }
+
+    private static int entryBytes(int keyLength, int valueLength) {
+        return ENTRY_HEADER_BYTES + keyLength + valueLength;
+    }
+
+    /* Copy the entry into the slabs and return its reference. */
+    private long allocate(byte[] key, byte[] value) {
+        int bytes = entryBytes(key.length, value.length);
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.remaining() < bytes) {
+            slab = ByteBuffer.allocateDirect(Math.max(SLAB_BYTES, bytes));
+            slabs.add(slab);
+        }
+        int start = slab.position();
+        slab.putInt(key.length).putInt(value.length).put(key).put(value);
+        allocatedBytes += bytes;
+        return ((long) slabs.size() << 32) | start;
+    }
+
+    /* ------------------------------- Map61B ------------------------------- */
+
+    /* Removes all the mappings from this map, and frees the slabs. */
+    @Override
+    public void clear() {
+        createTable(mask + 1);
+        slabs.clear();
+        allocatedBytes = 0;
+        deadBytes = 0;
+        size = 0;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(byte[] key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    /* Returns a copy of the value to which the specified key is mapped, or null if there is none. */
+    @Override
+    public byte[] get(byte[] key) {
+        int i = indexOf(key, hash(key));
+        return i >= 0 ? readValue(refAt(i)) : null;
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Associates a copy of the specified value with a copy of the specified key in this map.
+    If the map previously contained a mapping for the key, the old value is replaced,
+    in place if the new one is not longer. */
+    @Override
+    public void put(byte[] key, byte[] value) {
+        int hash = hash(key);
+        int i = hash & mask;
+        long ref;
+        while ((ref = refAt(i)) != 0) {
+            if (hashAt(i) == hash && keyEquals(ref, key)) {
+                replace(i, ref, key, value);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= threshold) {
+            resize();
+            i = hash & mask;
+            while (refAt(i) != 0) {
+                i = (i + 1) & mask;
+            }
+        }
+        setSlot(i, allocate(key, value), hash);
+        size++;
+    }
+
+    private void replace(int i, long ref, byte[] key, byte[] value) {
+        int oldLength = valueLength(ref);
+        if (value.length <= oldLength) {
+            ByteBuffer slab = slab(ref);
+            slab.putInt(offset(ref) + 4, value.length);
+            slab.put(offset(ref) + ENTRY_HEADER_BYTES + key.length, value);
+            deadBytes += oldLength - value.length;
+            return;
+        }
+        deadBytes += entryBytes(key.length, oldLength);
+        setSlot(i, allocate(key, value), hashAt(i));
+        compactIfSparse();
+    }
+
+    /* Double the table and put every reference back, with the hash kept beside it. */
+    private void resize() {
+        ByteBuffer oldSlots = slots;
+        int oldLength = mask + 1;
+        createTable(oldLength * 2);
+        for (int j = 0; j < oldLength; j++) {
+            long ref = oldSlots.getLong(j * SLOT_BYTES);
+            if (ref != 0) {
+                int hash = oldSlots.getInt(j * SLOT_BYTES + 8);
+                int i = hash & mask;
+                while (refAt(i) != 0) {
+                    i = (i + 1) & mask;
+                }
+                setSlot(i, ref, hash);
+            }
+        }
+    }
+
+    /* Copy the live entries into new slabs once half of the allocated bytes are dead. */
+    private void compactIfSparse() {
+        if (deadBytes * 2 < allocatedBytes || allocatedBytes < SLAB_BYTES) {
+            return;
+        }
+        List<ByteBuffer> oldSlabs = new ArrayList<>(slabs);
+        slabs.clear();
+        allocatedBytes = 0;
+        deadBytes = 0;
+        for (int i = 0; i <= mask; i++) {
+            long ref = refAt(i);
+            if (ref != 0) {
+                ByteBuffer from = oldSlabs.get((int) (ref >>> 32) - 1);
+                int start = offset(ref);
+                int bytes = entryBytes(from.getInt(start), from.getInt(start + 4));
+                setSlot(i, copy(from, start, bytes), hashAt(i));
+            }
+        }
+    }
+
+    /* Copy bytes of an entry from another slab into the slabs and return its new reference. */
+    private long copy(ByteBuffer from, int start, int bytes) {
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.remaining() < bytes) {
+            slab = ByteBuffer.allocateDirect(Math.max(SLAB_BYTES, bytes));
+            slabs.add(slab);
+        }
+        int position = slab.position();
+        slab.put(from.duplicate().limit(start + bytes).position(start));
+        allocatedBytes += bytes;
+        return ((long) slabs.size() << 32) | position;
+    }
+
+    /* Returns a Set of copies of the keys contained in this map. */
+    @Override
+    public Set<byte[]> keySet() {
+        Set<byte[]> keys = new HashSet<>();
+        for (byte[] key : this) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /* Removes the mapping for the specified key from this map if present. Else, return null. */
+    @Override
+    public byte[] remove(byte[] key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        byte[] removedValue = readValue(refAt(i));
+        removeAt(i);
+        return removedValue;
+    }
+
+    /* Removes the entry for the specified key only if its value has the same bytes as the specified value. */
+    @Override
+    public byte[] remove(byte[] key, byte[] value) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        byte[] removedValue = readValue(refAt(i));
+        if (!Arrays.equals(removedValue, value)) {
+            return null;
+        }
+        removeAt(i);
+        return removedValue;
+    }
+
+    private void removeAt(int i) {
+        long ref = refAt(i);
+        deadBytes += entryBytes(keyLength(ref), valueLength(ref));
+        // Move back each following entry whose home slot is not in (i, j], it could not be found past the hole
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long next = refAt(j);
+            if (next == 0) {
+                break;
+            }
+            int home = hashAt(j) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                setSlot(i, next, hashAt(j));
+                i = j;
+            }
+        }
+        setSlot(i, 0, 0);
+        size--;
+        compactIfSparse();
+    }
+
+    /* Iterates over copies of the keys. The map must not be changed while iterating. */
+    @Override
+    public Iterator<byte[]> iterator() {
+        return new Iterator<byte[]>() {
+            private int next = advance(0);
+
+            private int advance(int i) {
+                while (i <= mask && refAt(i) == 0) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next <= mask;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                byte[] key = readKey(refAt(next));
+                next = advance(next + 1);
+                return key;
+            }
+        };
+    }
+}
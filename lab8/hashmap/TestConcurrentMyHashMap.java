@@ -0,0 +1,121 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Tests of the concurrent map, with many threads putting, removing and merging at once. */
+public class TestConcurrentMyHashMap {
+    private static final int THREADS = 8;
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityContainsKeyTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityGetTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanitySizeTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityPutTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityKeySetTest(new ConcurrentMyHashMap<>());
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new ConcurrentMyHashMap<>(), new ConcurrentMyHashMap<>());
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.randomizedTest(new ConcurrentMyHashMap<>(1, 0.75, 1));
+    }
+
+    /* Every thread puts its own keys into a tiny table, so they all resize it together, then removes half of them. */
+    @Test
+    public void concurrentPutRemoveTest() throws InterruptedException {
+        ConcurrentMyHashMap<Integer, Integer> b = new ConcurrentMyHashMap<>(1, 0.75, 4);
+        int perThread = 20000;
+        runThreads(t -> {
+            for (int i = t; i < perThread * THREADS; i += THREADS) {
+                b.put(i, -i);
+            }
+            for (int i = t; i < perThread * THREADS; i += 2 * THREADS) {
+                assertEquals(-i, b.remove(i).intValue());
+            }
+        });
+        assertEquals(perThread * THREADS / 2, b.size());
+        assertEquals(perThread * THREADS / 2, b.keySet().size());
+        for (int i = 0; i < perThread * THREADS; i++) {
+            boolean removed = (i / THREADS) % 2 == 0;
+            assertEquals(!removed, b.containsKey(i));
+            if (!removed) {
+                assertEquals(-i, b.get(i).intValue());
+            }
+        }
+    }
+
+    /* Threads that put the same keys must agree on one entry per key. */
+    @Test
+    public void concurrentSameKeysTest() throws InterruptedException {
+        ConcurrentMyHashMap<String, Integer> b = new ConcurrentMyHashMap<>();
+        runThreads(t -> {
+            for (int i = 0; i < 10000; i++) {
+                b.put("hi" + i, i);
+            }
+        });
+        assertEquals(10000, b.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, b.get("hi" + i).intValue());
+        }
+        b.clear();
+        assertEquals(0, b.size());
+        assertNull(b.get("hi0"));
+    }
+
+    /* merge() and computeIfAbsent() are atomic: no count is lost, and a value is computed once per key. */
+    @Test
+    public void concurrentMergeTest() throws InterruptedException {
+        ConcurrentMyHashMap<Integer, Integer> b = new ConcurrentMyHashMap<>();
+        ConcurrentMyHashMap<Integer, Integer> computed = new ConcurrentMyHashMap<>();
+        AtomicInteger calls = new AtomicInteger();
+        runThreads(t -> {
+            for (int i = 0; i < 10000; i++) {
+                b.merge(i % 1000, 1, Integer::sum);
+                computed.computeIfAbsent(i, k -> calls.incrementAndGet());
+            }
+        });
+        assertEquals(1000, b.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(10 * THREADS, b.get(i).intValue());
+        }
+        assertEquals(10000, computed.size());
+        assertEquals(10000, calls.get());
+    }
+
+    private interface Work {
+        void run(int thread);
+    }
+
+    /* Run the work on THREADS threads at once, and fail if any of them failed. */
+    private static void runThreads(Work work) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            Thread th = new Thread(() -> work.run(thread));
+            th.setUncaughtExceptionHandler((x, e) -> {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            });
+            threads.add(th);
+            th.start();
+        }
+        for (Thread th : threads) {
+            th.join();
+        }
+        assertTrue("thread failed: " + failures, failures.isEmpty());
+    }
+}
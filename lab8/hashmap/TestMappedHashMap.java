@@ -0,0 +1,193 @@
+package hashmap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static hashmap.TestOffHeapHashMap.bytes;
+import static hashmap.TestOffHeapHashMap.intToInt;
+import static hashmap.TestOffHeapHashMap.stringToInt;
+import static hashmap.TestOffHeapHashMap.strings;
+
+/** Tests of the memory-mapped map, in a temporary directory. The log is mapped in small chunks,
+ *  so that records skip to the next chunk often. */
+public class TestMappedHashMap {
+    private static final int CHUNK_BYTES = 4096;
+    /* A record of a 4-byte key and a 4-byte value, behind its CRC and the two lengths. */
+    private static final int RECORD_BYTES = 12 + 4 + 4;
+    private Path dir;
+    private final List<MappedHashMap> opened = new ArrayList<>();
+
+    @Before
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("mapped");
+    }
+
+    @After
+    public void deleteDir() throws IOException {
+        for (MappedHashMap m : opened) {
+            try {
+                m.close();
+            } catch (IOException | RuntimeException e) {
+                // Closed by the test already
+            }
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private MappedHashMap open(String name) {
+        try {
+            MappedHashMap m = MappedHashMap.open(dir.resolve(name), CHUNK_BYTES);
+            opened.add(m);
+            return m;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(stringToInt(open("clear")));
+        TestMyHashMap.sanityContainsKeyTest(stringToInt(open("containsKey")));
+        TestMyHashMap.sanityGetTest(stringToInt(open("get")));
+        TestMyHashMap.sanitySizeTest(stringToInt(open("size")));
+        TestMyHashMap.sanityPutTest(stringToInt(open("put")));
+        TestMyHashMap.sanityKeySetTest(stringToInt(open("keySet")));
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(strings(open("strings"), TestOffHeapHashMap::bytes,
+                TestOffHeapHashMap::toString), stringToInt(open("ints")));
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(intToInt(open("random")));
+    }
+
+    /* A closed map opens with the same entries, without reading its log. */
+    @Test
+    public void reopenTest() throws IOException {
+        MappedHashMap m = open("m");
+        for (int i = 0; i < 1000; i++) {
+            m.put(bytes(i), bytes(i * i));
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            m.remove(bytes(i));
+        }
+        m.put(bytes(1), bytes(-1));
+        m.close();
+        m = open("m");
+        assertEquals(666, m.size());
+        assertArrayEquals(bytes(-1), m.get(bytes(1)));
+        for (int i = 2; i < 1000; i++) {
+            assertEquals(i % 3 != 0, m.containsKey(bytes(i)));
+        }
+        m.put(bytes(0), bytes(0));
+        assertEquals(667, m.size());
+    }
+
+    /* A map that was not closed is rebuilt from its log, and a torn last record is dropped. */
+    @Test
+    public void crashTest() throws IOException {
+        MappedHashMap m = open("m");
+        for (int i = 0; i < 1000; i++) {
+            m.put(bytes(i), bytes(i));
+        }
+        m.remove(bytes(7));
+        m.put(bytes(1000), bytes(1000));
+        long logLength;
+        try (RandomAccessFile table = new RandomAccessFile(dir.resolve("m.table").toFile(), "r")) {
+            table.seek(MappedHashMap.LOG_LENGTH_AT);
+            logLength = table.readLong();
+        }
+        try (RandomAccessFile log = new RandomAccessFile(dir.resolve("m.log").toFile(), "rw")) {
+            log.seek(logLength - 1);
+            int last = log.read();
+            log.seek(logLength - 1);
+            log.write(~last);
+        }
+        m = open("m");
+        assertEquals(999, m.size());
+        assertFalse(m.containsKey(bytes(7)));
+        assertFalse(m.containsKey(bytes(1000)));
+        assertArrayEquals(bytes(999), m.get(bytes(999)));
+        m.put(bytes(1000), bytes(1));
+        m.close();
+        m = open("m");
+        assertEquals(1000, m.size());
+        assertArrayEquals(bytes(1), m.get(bytes(1000)));
+    }
+
+    /* A table of another layout version is refused rather than misread. */
+    @Test
+    public void versionTest() throws IOException {
+        open("m").close();
+        try (RandomAccessFile table = new RandomAccessFile(dir.resolve("m.table").toFile(), "rw")) {
+            table.seek(MappedHashMap.VERSION_AT);
+            table.writeInt(MappedHashMap.VERSION + 1);
+        }
+        try {
+            MappedHashMap.open(dir.resolve("m"), CHUNK_BYTES);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("layout version"));
+        }
+    }
+
+    /* A table written with chunks of another size is refused, since its positions would fall in other chunks. */
+    @Test
+    public void chunkBytesTest() throws IOException {
+        open("m").close();
+        try {
+            MappedHashMap.open(dir.resolve("m"), CHUNK_BYTES * 2);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("chunks of " + CHUNK_BYTES));
+        }
+    }
+
+    /* The log file is mapped only as far as its records, not a whole chunk, and is cut to them by close(). */
+    @Test
+    public void logLengthTest() throws IOException {
+        Path log = dir.resolve("big.log");
+        MappedHashMap m = MappedHashMap.open(dir.resolve("big"), 1 << 30);
+        opened.add(m);
+        m.put(bytes(1), bytes(1));
+        assertTrue(Files.size(log) < 1 << 20);
+        m.close();
+        assertEquals(RECORD_BYTES, Files.size(log));
+        m = MappedHashMap.open(dir.resolve("big"), 1 << 30);
+        opened.add(m);
+        m.clear();
+        m.put(bytes(2), bytes(2));
+        m.put(bytes(3), bytes(3));
+        m.close();
+        assertEquals(2 * RECORD_BYTES, Files.size(log));
+        m = MappedHashMap.open(dir.resolve("big"), 1 << 30);
+        opened.add(m);
+        assertArrayEquals(bytes(3), m.get(bytes(3)));
+        assertEquals(2, m.size());
+    }
+
+    /* An entry bigger than a chunk of the log is refused. */
+    @Test(expected = IllegalArgumentException.class)
+    public void entryTooBigTest() {
+        open("m").put(bytes(1), new byte[CHUNK_BYTES]);
+    }
+}
@@ -3,7 +3,13 @@ package hashmap;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -27,7 +33,7 @@ public class TestMyHashMap {
         sanityClearTest(new MyHashMap<>());
     }
 
-    public static void sanityClearTest(MyHashMap<String, Integer> b) {
+    public static void sanityClearTest(Map61B<String, Integer> b) {
         for (int i = 0; i < 455; i++) {
             b.put("hi" + i, 1);
             //make sure put is working via containsKey and get
@@ -47,7 +53,7 @@ public class TestMyHashMap {
         sanityContainsKeyTest(new MyHashMap<>());
     }
 
-    public static void sanityContainsKeyTest(MyHashMap<String, Integer> b) {
+    public static void sanityContainsKeyTest(Map61B<String, Integer> b) {
         assertFalse(b.containsKey("waterYouDoingHere"));
         b.put("waterYouDoingHere", 0);
         assertTrue(b.containsKey("waterYouDoingHere"));
@@ -59,7 +65,7 @@ public class TestMyHashMap {
         sanityGetTest(new MyHashMap<>());
     }
 
-    public static void sanityGetTest(MyHashMap<String, Integer> b) {
+    public static void sanityGetTest(Map61B<String, Integer> b) {
         assertEquals(null, b.get("starChild"));
         b.put("starChild", 5);
         assertNotEquals(null, b.get("starChild"));
@@ -74,7 +80,7 @@ public class TestMyHashMap {
         sanitySizeTest(new MyHashMap<>());
     }
 
-    public static void sanitySizeTest(MyHashMap<String, Integer> b) {
+    public static void sanitySizeTest(Map61B<String, Integer> b) {
         assertEquals(0, b.size());
         b.put("hi", 1);
         assertEquals(1, b.size());
@@ -90,7 +96,7 @@ public class TestMyHashMap {
         sanityPutTest(new MyHashMap<>());
     }
 
-    public static void sanityPutTest(MyHashMap<String, Integer> b) {
+    public static void sanityPutTest(Map61B<String, Integer> b) {
         b.put("hi", 1);
         assertTrue(b.containsKey("hi") && b.get("hi") != null);
     }
@@ -100,7 +106,7 @@ public class TestMyHashMap {
         sanityKeySetTest(new MyHashMap<>());
     }
 
-    public static void sanityKeySetTest(MyHashMap<String, Integer> b) {
+    public static void sanityKeySetTest(Map61B<String, Integer> b) {
         HashSet<String> values = new HashSet<String>();
         for (int i = 0; i < 455; i++) {
             b.put("hi" + i, 1);
@@ -112,14 +118,226 @@ public class TestMyHashMap {
         assertTrue(keySet.containsAll(values));
     }
 
+    // Buckets are only created by put(), so everything else must cope with a table of null buckets.
+    @Test
+    public void emptyBucketsTest() {
+        MyHashMap<String, Integer> b = new MyHashMap<>(64);
+        assertFalse(b.containsKey("hi"));
+        assertNull(b.get("hi"));
+        assertNull(b.remove("hi"));
+        assertNull(b.remove("hi", 1));
+        assertFalse(b.iterator().hasNext());
+        b.clear();
+        b.put("hi", 1);
+        Iterator<String> iter = b.iterator();
+        assertEquals("hi", iter.next());
+        assertFalse(iter.hasNext());
+        try {
+            iter.next();
+            fail("next() past the last key should throw");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    // Multiples of 1024 share their low bits, which are the only ones the mask keeps if they are not mixed.
+    @Test
+    public void bucketOccupancyTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(1000);
+        assertEquals(1024, b.bucketOccupancy()[0]);
+        for (int i = 0; i < 700; i++) {
+            b.put(i * 1024, i);
+        }
+        int[] histogram = b.bucketOccupancy();
+        int buckets = 0;
+        int nodes = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            buckets += histogram[k];
+            nodes += k * histogram[k];
+        }
+        assertEquals(1024, buckets);
+        assertEquals(700, nodes);
+        assertTrue("longest chain " + (histogram.length - 1), histogram.length - 1 <= 8);
+    }
+
+    private static int tableLength(MyHashMap<?, ?> b) {
+        int length = 0;
+        for (int n : b.bucketOccupancy()) {
+            length += n;
+        }
+        return length;
+    }
+
+    // The table halves as keys are removed, down to its initial length, and trimToSize() goes further.
+    @Test
+    public void shrinkTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(16);
+        for (int i = 0; i < 10000; i++) {
+            b.put(i, i);
+        }
+        assertEquals(16384, tableLength(b));
+        for (int i = 3; i < 10000; i++) {
+            assertEquals(i, b.remove(i).intValue());
+        }
+        assertEquals(16, tableLength(b));
+        b.trimToSize();
+        assertEquals(8, tableLength(b));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, b.get(i).intValue());
+        }
+        assertEquals(3, b.size());
+
+        MyHashMap<Integer, Integer> never = new MyHashMap<>(16, 0.75, 0.0);
+        for (int i = 0; i < 1000; i++) {
+            never.put(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            never.remove(i);
+        }
+        assertEquals(2048, tableLength(never));
+    }
+
+    // Putting and removing one key around the low-water mark must not resize the table every time.
+    @Test
+    public void shrinkHysteresisTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(1);
+        for (int i = 0; i < 1000; i++) {
+            b.put(i, i);
+        }
+        int length = tableLength(b);
+        while (tableLength(b) == length) {
+            b.remove(b.size() - 1);
+        }
+        int shrunk = tableLength(b);
+        for (int i = 0; i < 100; i++) {
+            b.put(b.size(), 0);
+            assertEquals(shrunk, tableLength(b));
+            b.remove(b.size() - 1);
+            assertEquals(shrunk, tableLength(b));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minLoadTooHighTest() {
+        new MyHashMap<String, Integer>(16, 0.75, 0.5);
+    }
+
+    // Test against Java's HashMap with random puts, gets and removes of keys that collide a lot.
+    @Test
+    public void randomizedTest() {
+        randomizedTest(new MyHashMap<>());
+    }
+
+    public static void randomizedTest(Map61B<Integer, Integer> b) {
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            // Multiples of 64 share their low bits, so they land in few buckets or slots
+            int key = random.nextInt(500) * 64;
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else if (operation == 1) {
+                assertEquals(expected.get(key), b.get(key));
+                assertEquals(expected.containsKey(key), b.containsKey(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+        Set<Integer> iterated = new HashSet<>();
+        for (int key : b) {
+            assertTrue(iterated.add(key));
+        }
+        assertEquals(expected.keySet(), iterated);
+    }
+
+    // Test the bulk and compute-style operations against Java's HashMap, with MyHashMap's overrides
+    // and with the default methods of Map61B.
+    @Test
+    public void bulkOperationsTest() {
+        bulkOperationsTest(new MyHashMap<>());
+        bulkOperationsTest(new MyHashMap<>(2, 0.75, true));
+        bulkOperationsTest(new MyHashMapOpenAddressing<>());
+        bulkOperationsTest(new MyHashMapSwissTable<>());
+    }
+
+    public static void bulkOperationsTest(Map61B<Integer, Integer> b) {
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(61);
+        for (int round = 0; round < 200; round++) {
+            Map<Integer, Integer> batch = new HashMap<>();
+            for (int i = 0; i < 50; i++) {
+                batch.put(random.nextInt(500) * 64, random.nextInt(10));
+            }
+            expected.putAll(batch);
+            b.putAll(batch);
+            for (int i = 0; i < 50; i++) {
+                int key = random.nextInt(500) * 64;
+                int value = random.nextInt(10);
+                // A sum of 0 or more than 20 removes the key
+                assertEquals(expected.merge(key, value, (x, y) -> x + y > 20 || x + y == 0 ? null : x + y),
+                        b.merge(key, value, (x, y) -> x + y > 20 || x + y == 0 ? null : x + y));
+                key = random.nextInt(500) * 64;
+                assertEquals(expected.computeIfAbsent(key, k -> k % 3 == 0 ? null : k / 64),
+                        b.computeIfAbsent(key, k -> k % 3 == 0 ? null : k / 64));
+            }
+            int removed = random.nextInt(10);
+            assertEquals(expected.entrySet().removeIf(e -> e.getValue() == removed),
+                    b.removeIf((k, v) -> v == removed));
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+        List<Integer> keys = List.of(0, 64, 128, 1, 2);
+        Map<Integer, Integer> found = new HashMap<>();
+        for (int key : keys) {
+            if (expected.containsKey(key)) {
+                found.put(key, expected.get(key));
+            }
+        }
+        assertEquals(found, b.getAll(keys));
+    }
+
+    // putAll() grows the table once to fit the batch, and removeIf() can shrink it by more than half.
+    @Test
+    public void putAllRemoveIfTableTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>();
+        Map<Integer, Integer> batch = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            batch.put(i, i);
+        }
+        b.putAll(batch);
+        assertEquals(16384, tableLength(b));
+        assertEquals(10000, b.size());
+        assertTrue(b.removeIf((k, v) -> k >= 3));
+        assertFalse(b.removeIf((k, v) -> k >= 3));
+        assertEquals(3, b.size());
+        assertEquals(16, tableLength(b));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, b.get(i).intValue());
+        }
+    }
+
+    // The same tests while the table grows by incremental rehash, so most operations see two tables.
+    @Test
+    public void incrementalResizeTest() {
+        sanityClearTest(new MyHashMap<>(16, 0.75, true));
+        sanitySizeTest(new MyHashMap<>(16, 0.75, true));
+        sanityKeySetTest(new MyHashMap<>(16, 0.75, true));
+        randomizedTest(new MyHashMap<>(2, 0.75, true));
+        functionalityTest(new MyHashMap<>(1, 0.75, true), new MyHashMap<>(1, 0.75, true));
+    }
+
     // Test for general functionality and that the properties of Maps hold.
     @Test
     public void functionalityTest() {
         functionalityTest(new MyHashMap<>(), new MyHashMap<>());
     }
 
-    public static void functionalityTest(MyHashMap<String, String> dictionary,
-                                   MyHashMap<String, Integer> studentIDs) {
+    public static void functionalityTest(Map61B<String, String> dictionary,
+                                   Map61B<String, Integer> studentIDs) {
         assertEquals(0, dictionary.size());
 
         // can put objects in dictionary and get them
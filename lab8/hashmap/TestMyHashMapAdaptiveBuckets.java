@@ -0,0 +1,94 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tests of the adaptive buckets: a bucket of colliding keys turns into a tree and back into an array. */
+public class TestMyHashMapAdaptiveBuckets {
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new MyHashMapAdaptiveBuckets<>());
+        TestMyHashMap.sanityContainsKeyTest(new MyHashMapAdaptiveBuckets<>());
+        TestMyHashMap.sanityGetTest(new MyHashMapAdaptiveBuckets<>());
+        TestMyHashMap.sanitySizeTest(new MyHashMapAdaptiveBuckets<>());
+        TestMyHashMap.sanityPutTest(new MyHashMapAdaptiveBuckets<>());
+        TestMyHashMap.sanityKeySetTest(new MyHashMapAdaptiveBuckets<>());
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new MyHashMapAdaptiveBuckets<>(), new MyHashMapAdaptiveBuckets<>());
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new MyHashMapAdaptiveBuckets<>(1));
+    }
+
+    /* Returns the 2^n strings of n blocks of "Aa" or "BB", which all have the same hash code. */
+    public static List<String> collidingStrings(int n) {
+        List<String> strings = new ArrayList<>();
+        strings.add("");
+        for (int i = 0; i < n; i++) {
+            List<String> longer = new ArrayList<>();
+            for (String s : strings) {
+                longer.add(s + "Aa");
+                longer.add(s + "BB");
+            }
+            strings = longer;
+        }
+        return strings;
+    }
+
+    /* One bucket grows into a tree, survives resizes and shrinks back into an array. */
+    @Test
+    public void treeifyTest() {
+        MyHashMapAdaptiveBuckets<String, Integer> b = new MyHashMapAdaptiveBuckets<>(1);
+        List<String> keys = collidingStrings(6);
+        for (int i = 0; i < keys.size(); i++) {
+            b.put(keys.get(i), i);
+        }
+        assertEquals(keys.size(), b.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, b.get(keys.get(i)).intValue());
+        }
+        assertFalse(b.containsKey("AaAaAaAaAaBC"));
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertEquals(i, b.remove(keys.get(i)).intValue());
+        }
+        // Down to the untreeify threshold and below
+        for (int i = 1; i < keys.size() - 2 * MyHashMapAdaptiveBuckets.UNTREEIFY_THRESHOLD; i += 2) {
+            assertEquals(i, b.remove(keys.get(i), i).intValue());
+        }
+        assertEquals(MyHashMapAdaptiveBuckets.UNTREEIFY_THRESHOLD, b.size());
+        for (int i = 0; i < keys.size(); i++) {
+            boolean kept = i % 2 == 1 && i >= keys.size() - 2 * MyHashMapAdaptiveBuckets.UNTREEIFY_THRESHOLD;
+            assertEquals(kept, b.containsKey(keys.get(i)));
+        }
+        assertEquals(MyHashMapAdaptiveBuckets.UNTREEIFY_THRESHOLD, b.keySet().size());
+    }
+
+    /* A key of another class with the same hash code cannot be compared, so the tree goes back to an array. */
+    @Test
+    public void mixedKeysTest() {
+        MyHashMapAdaptiveBuckets<Object, Integer> b = new MyHashMapAdaptiveBuckets<>(1);
+        List<String> keys = collidingStrings(4);
+        for (int i = 0; i < keys.size(); i++) {
+            b.put(keys.get(i), i);
+        }
+        b.put(keys.get(0).hashCode(), -1);
+        assertEquals(-1, b.get(keys.get(0).hashCode()).intValue());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, b.get(keys.get(i)).intValue());
+        }
+        assertEquals(keys.size() + 1, b.size());
+        assertEquals(-1, b.remove(keys.get(0).hashCode()).intValue());
+        b.put("AaAaAaAa", -2);
+        assertEquals(-2, b.get("AaAaAaAa").intValue());
+        assertEquals(keys.size(), b.size());
+    }
+}
@@ -97,6 +97,16 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanityKeySetTest(new MyHashMapPQBuckets<>());
     }
 
+    // Resizing splits each bucket in place with its own iterator, so every kind of bucket is checked.
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new MyHashMapALBuckets<>(1));
+        TestMyHashMap.randomizedTest(new MyHashMapLLBuckets<>(1));
+        TestMyHashMap.randomizedTest(new MyHashMapTSBuckets<>(1));
+        TestMyHashMap.randomizedTest(new MyHashMapHSBuckets<>(1));
+        TestMyHashMap.randomizedTest(new MyHashMapPQBuckets<>(1));
+    }
+
     // Test for general functionality and that the properties of Maps hold.
     @Test
     public void functionalityTest() {
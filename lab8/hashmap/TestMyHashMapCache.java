@@ -0,0 +1,132 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tests of LRUCache and LFUCache: which entry is evicted, and what counts as an access of it.
+ *  The tests of TestMyHashMap run on caches too big to evict anything. */
+public class TestMyHashMapCache {
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityContainsKeyTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityGetTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanitySizeTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityPutTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityKeySetTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityClearTest(new LFUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityContainsKeyTest(new LFUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityGetTest(new LFUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanitySizeTest(new LFUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityPutTest(new LFUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.sanityKeySetTest(new LFUCache<>(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new LRUCache<>(Integer.MAX_VALUE), new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.functionalityTest(new LFUCache<>(Integer.MAX_VALUE), new LFUCache<>(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new LRUCache<>(Integer.MAX_VALUE));
+        TestMyHashMap.randomizedTest(new LFUCache<>(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void lruEvictionTest() {
+        LRUCache<String, Integer> b = new LRUCache<>(3);
+        List<String> evicted = new ArrayList<>();
+        b.addEvictionListener((k, v) -> evicted.add(k + "=" + v));
+        b.put("a", 1);
+        b.put("b", 2);
+        b.put("c", 3);
+        assertEquals(1, b.get("a").intValue()); // b is now the least recently used
+        b.put("d", 4);
+        assertFalse(b.containsKey("b"));
+        b.put("c", 30); // so is a again
+        b.put("e", 5);
+        assertEquals(List.of("b=2", "a=1"), evicted);
+        assertEquals(3, b.size());
+        assertNull(b.get("a"));
+        assertEquals(1, b.hitCount());
+        assertEquals(1, b.missCount());
+        assertEquals(2, b.evictionCount());
+        assertEquals(30, b.remove("c").intValue());
+        b.clear();
+        assertEquals(2, evicted.size());
+        assertEquals(0, b.weight());
+    }
+
+    @Test
+    public void lfuEvictionTest() {
+        LFUCache<String, Integer> b = new LFUCache<>(3);
+        List<String> evicted = new ArrayList<>();
+        b.addEvictionListener((k, v) -> evicted.add(k));
+        b.put("a", 1);
+        b.put("b", 2);
+        b.put("c", 3);
+        b.get("a");
+        b.get("a");
+        b.get("b");
+        b.put("d", 4); // c was used once
+        b.put("e", 5); // d was used once, and more recently than nothing else used once
+        b.get("e");
+        b.get("e");
+        b.put("f", 6); // f is spared, and b was used twice, and before e was
+        assertEquals(List.of("c", "d", "b"), evicted);
+        assertTrue(b.containsKey("a"));
+        assertTrue(b.containsKey("e"));
+        assertTrue(b.containsKey("f"));
+        // Removing the only entry of a count must not break the order of the others
+        b.remove("f");
+        b.put("g", 7);
+        b.put("h", 8);
+        assertEquals(List.of("c", "d", "b", "g"), evicted);
+    }
+
+    @Test
+    public void weightBudgetTest() {
+        LRUCache<String, String> b = new LRUCache<>(10, (k, v) -> k.length() + v.length());
+        b.put("a", "1234"); // 5
+        b.put("b", "1234"); // 10
+        assertEquals(10, b.weight());
+        b.put("a", "12"); // 8, and b is now the least recently used
+        b.put("c", "1"); // 10
+        assertEquals(3, b.size());
+        b.put("d", "1"); // 12, so b goes
+        assertFalse(b.containsKey("b"));
+        assertEquals(7, b.weight());
+        b.put("e", "123456789012"); // heavier than the budget alone, so everything goes
+        assertEquals(0, b.size());
+        assertEquals(0, b.weight());
+        assertEquals(5, b.evictionCount());
+    }
+
+    /* removeIf() tests the entries without getting them, so it must not move them in the eviction order. */
+    @Test
+    public void removeIfTest() {
+        LRUCache<Integer, Integer> b = new LRUCache<>(3);
+        List<Integer> evicted = new ArrayList<>();
+        b.addEvictionListener((k, v) -> evicted.add(k));
+        b.put(1, 1);
+        b.put(2, 2);
+        b.put(3, 3);
+        assertFalse(b.removeIf((k, v) -> false));
+        b.put(4, 4);
+        assertEquals(List.of(1), evicted);
+        assertEquals(0, b.hitCount());
+        assertTrue(b.removeIf((k, v) -> v == 3));
+        assertEquals(2, b.size());
+        assertEquals(2, b.weight());
+        b.put(5, 5);
+        b.put(6, 6);
+        assertEquals(List.of(1, 2), evicted);
+        assertEquals(0, b.hitCount());
+    }
+}
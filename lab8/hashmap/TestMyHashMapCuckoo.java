@@ -0,0 +1,73 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+/** Tests of the cuckoo map: a table full up to its load factor, and keys that all share their two buckets. */
+public class TestMyHashMapCuckoo {
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new MyHashMapCuckoo<>());
+        TestMyHashMap.sanityContainsKeyTest(new MyHashMapCuckoo<>());
+        TestMyHashMap.sanityGetTest(new MyHashMapCuckoo<>());
+        TestMyHashMap.sanitySizeTest(new MyHashMapCuckoo<>());
+        TestMyHashMap.sanityPutTest(new MyHashMapCuckoo<>());
+        TestMyHashMap.sanityKeySetTest(new MyHashMapCuckoo<>());
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new MyHashMapCuckoo<>(), new MyHashMapCuckoo<>());
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new MyHashMapCuckoo<>());
+        // A full table has to kick keys around, and stash those it cannot place
+        TestMyHashMap.randomizedTest(new MyHashMapCuckoo<>(2, 1.0));
+    }
+
+    /* The table fills up to its load factor before it grows, with next to nothing in the stash. */
+    @Test
+    public void highLoadTest() {
+        MyHashMapCuckoo<Integer, Integer> c = new MyHashMapCuckoo<>(1 << 16, 0.95);
+        int n = (int) ((1 << 16) * 0.95) - 1;
+        for (int i = 0; i < n; i++) {
+            c.put(i * 7919, i);
+        }
+        assertTrue(c.load() > 0.94);
+        assertTrue(c.stashSize() <= 8);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, c.get(i * 7919).intValue());
+        }
+        assertFalse(c.containsKey(-1));
+    }
+
+    /* Keys with one hash code share their two buckets, and the rest of them wait in the stash. */
+    @Test
+    public void collidingKeysTest() {
+        MyHashMapCuckoo<String, Integer> c = new MyHashMapCuckoo<>();
+        List<String> keys = TestMyHashMapAdaptiveBuckets.collidingStrings(5);
+        for (int i = 0; i < keys.size(); i++) {
+            c.put(keys.get(i), i);
+        }
+        assertEquals(keys.size(), c.size());
+        assertTrue(c.stashSize() >= keys.size() - 8);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, c.get(keys.get(i)).intValue());
+        }
+        // Removing from the buckets makes room for stashed keys
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertEquals(i, c.remove(keys.get(i)).intValue());
+        }
+        assertEquals(keys.size() / 2, c.size());
+        assertEquals(keys.size() / 2 - 8, c.stashSize());
+        for (int i = 1; i < keys.size(); i += 2) {
+            assertEquals(i, c.get(keys.get(i)).intValue());
+        }
+        assertEquals(keys.size() / 2, c.keySet().size());
+    }
+}
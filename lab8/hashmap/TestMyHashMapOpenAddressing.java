@@ -0,0 +1,50 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests of the open addressing map. Every map of the lab gets a class like this one: the tests of
+ *  TestMyHashMap are run on it first, then the tests of what only that map does. */
+public class TestMyHashMapOpenAddressing {
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new MyHashMapOpenAddressing<>());
+        TestMyHashMap.sanityContainsKeyTest(new MyHashMapOpenAddressing<>());
+        TestMyHashMap.sanityGetTest(new MyHashMapOpenAddressing<>());
+        TestMyHashMap.sanitySizeTest(new MyHashMapOpenAddressing<>());
+        TestMyHashMap.sanityPutTest(new MyHashMapOpenAddressing<>());
+        TestMyHashMap.sanityKeySetTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new MyHashMapOpenAddressing<>(), new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new MyHashMapOpenAddressing<>());
+        // A full table must still keep an empty slot, or a miss would probe forever
+        TestMyHashMap.randomizedTest(new MyHashMapOpenAddressing<>(2, 1.0));
+    }
+
+    /* Keys with the same hash code share one home slot, so they form one run of probes. */
+    @Test
+    public void backwardShiftTest() {
+        MyHashMapOpenAddressing<String, Integer> q = new MyHashMapOpenAddressing<>(64);
+        String[] keys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa"}; // "Aa" and "BB" collide, and so do the rest
+        for (int i = 0; i < keys.length; i++) {
+            q.put(keys[i], i);
+        }
+        assertEquals(0, q.remove("Aa").intValue());
+        assertNull(q.remove("BB", 0));
+        assertEquals(1, q.remove("BB", 1).intValue());
+        for (int i = 2; i < keys.length; i++) {
+            assertEquals(i, q.get(keys[i]).intValue());
+        }
+        assertFalse(q.containsKey("Aa"));
+        assertFalse(q.containsKey("BB"));
+        assertEquals(4, q.size());
+    }
+}
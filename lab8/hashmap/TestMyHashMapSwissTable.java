@@ -0,0 +1,70 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+/** Tests of the Swiss table map: the DELETED slots removes leave, and keys whose control bytes all match. */
+public class TestMyHashMapSwissTable {
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new MyHashMapSwissTable<>());
+        TestMyHashMap.sanityContainsKeyTest(new MyHashMapSwissTable<>());
+        TestMyHashMap.sanityGetTest(new MyHashMapSwissTable<>());
+        TestMyHashMap.sanitySizeTest(new MyHashMapSwissTable<>());
+        TestMyHashMap.sanityPutTest(new MyHashMapSwissTable<>());
+        TestMyHashMap.sanityKeySetTest(new MyHashMapSwissTable<>());
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new MyHashMapSwissTable<>(), new MyHashMapSwissTable<>());
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(new MyHashMapSwissTable<>());
+        // At a load factor of 1 one slot still stays EMPTY, and the group that holds it ends the probe of a miss
+        TestMyHashMap.randomizedTest(new MyHashMapSwissTable<>(8, 1.0));
+    }
+
+    /* Keys put and removed over and over leave DELETED slots, which are cleaned up without growing the table. */
+    @Test
+    public void deletedSlotsTest() {
+        MyHashMapSwissTable<Integer, Integer> s = new MyHashMapSwissTable<>(64);
+        for (int i = 0; i < 100000; i++) {
+            s.put(i, i);
+            if (i >= 20) {
+                assertEquals(i - 20, s.remove(i - 20).intValue());
+            }
+        }
+        assertEquals(20, s.size());
+        assertEquals(20.0 / 64, s.load(), 0);
+        for (int i = 0; i < 100000 - 20; i++) {
+            assertFalse(s.containsKey(i));
+        }
+        for (int i = 100000 - 20; i < 100000; i++) {
+            assertEquals(i, s.get(i).intValue());
+        }
+    }
+
+    /* Keys with one hash code have the same control byte and start in the same group, so they fill a run of
+     * groups that every lookup of them walks, and that removes have to leave walkable. */
+    @Test
+    public void collidingKeysTest() {
+        MyHashMapSwissTable<String, Integer> s = new MyHashMapSwissTable<>();
+        List<String> keys = TestMyHashMapAdaptiveBuckets.collidingStrings(6);
+        for (int i = 0; i < keys.size(); i++) {
+            s.put(keys.get(i), i);
+        }
+        for (int i = 0; i < keys.size(); i += 3) {
+            assertEquals(i, s.remove(keys.get(i)).intValue());
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i % 3 != 0, s.containsKey(keys.get(i)));
+        }
+        assertFalse(s.containsKey("AaAaAaAaAaBC"));
+    }
+}
@@ -0,0 +1,182 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+
+/** Tests of the off-heap map. The tests of every map go through a map that serializes its keys and values. */
+public class TestOffHeapHashMap {
+
+    /* A Map61B of K to V over a map of their bytes. */
+    static class SerializedMap<K, V> implements Map61B<K, V> {
+        private final Map61B<byte[], byte[]> bytes;
+        private final Function<K, byte[]> keyWriter;
+        private final Function<byte[], K> keyReader;
+        private final Function<V, byte[]> valueWriter;
+        private final Function<byte[], V> valueReader;
+
+        SerializedMap(Map61B<byte[], byte[]> bytes, Function<K, byte[]> keyWriter, Function<byte[], K> keyReader,
+                      Function<V, byte[]> valueWriter, Function<byte[], V> valueReader) {
+            this.bytes = bytes;
+            this.keyWriter = keyWriter;
+            this.keyReader = keyReader;
+            this.valueWriter = valueWriter;
+            this.valueReader = valueReader;
+        }
+
+        private V read(byte[] value) {
+            return value == null ? null : valueReader.apply(value);
+        }
+
+        public void clear() {
+            bytes.clear();
+        }
+
+        public boolean containsKey(K key) {
+            return bytes.containsKey(keyWriter.apply(key));
+        }
+
+        public V get(K key) {
+            return read(bytes.get(keyWriter.apply(key)));
+        }
+
+        public int size() {
+            return bytes.size();
+        }
+
+        public void put(K key, V value) {
+            bytes.put(keyWriter.apply(key), valueWriter.apply(value));
+        }
+
+        public Set<K> keySet() {
+            Set<K> keys = new HashSet<>();
+            for (K key : this) {
+                keys.add(key);
+            }
+            return keys;
+        }
+
+        public V remove(K key) {
+            return read(bytes.remove(keyWriter.apply(key)));
+        }
+
+        public V remove(K key, V value) {
+            return read(bytes.remove(keyWriter.apply(key), valueWriter.apply(value)));
+        }
+
+        public Iterator<K> iterator() {
+            Iterator<byte[]> keys = bytes.iterator();
+            return new Iterator<K>() {
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
+
+                public K next() {
+                    return keyReader.apply(keys.next());
+                }
+            };
+        }
+    }
+
+    static byte[] bytes(int i) {
+        return ByteBuffer.allocate(4).putInt(i).array();
+    }
+
+    static int toInt(byte[] b) {
+        return ByteBuffer.wrap(b).getInt();
+    }
+
+    static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String toString(byte[] b) {
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /* A Map61B<String, V> over the given map of bytes. */
+    static <V> Map61B<String, V> strings(Map61B<byte[], byte[]> b, Function<V, byte[]> writer,
+                                         Function<byte[], V> reader) {
+        return new SerializedMap<>(b, TestOffHeapHashMap::bytes, TestOffHeapHashMap::toString, writer, reader);
+    }
+
+    static Map61B<String, Integer> stringToInt(Map61B<byte[], byte[]> b) {
+        return strings(b, TestOffHeapHashMap::bytes, TestOffHeapHashMap::toInt);
+    }
+
+    static Map61B<Integer, Integer> intToInt(Map61B<byte[], byte[]> b) {
+        return new SerializedMap<>(b, TestOffHeapHashMap::bytes, TestOffHeapHashMap::toInt,
+                TestOffHeapHashMap::bytes, TestOffHeapHashMap::toInt);
+    }
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(stringToInt(new OffHeapHashMap()));
+        TestMyHashMap.sanityContainsKeyTest(stringToInt(new OffHeapHashMap()));
+        TestMyHashMap.sanityGetTest(stringToInt(new OffHeapHashMap()));
+        TestMyHashMap.sanitySizeTest(stringToInt(new OffHeapHashMap()));
+        TestMyHashMap.sanityPutTest(stringToInt(new OffHeapHashMap()));
+        TestMyHashMap.sanityKeySetTest(stringToInt(new OffHeapHashMap()));
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(strings(new OffHeapHashMap(), TestOffHeapHashMap::bytes,
+                TestOffHeapHashMap::toString), stringToInt(new OffHeapHashMap()));
+    }
+
+    @Test
+    public void randomizedTest() {
+        TestMyHashMap.randomizedTest(intToInt(new OffHeapHashMap()));
+    }
+
+    /* Keys are compared by their bytes, not by identity, and values come back as copies. */
+    @Test
+    public void byteKeysTest() {
+        OffHeapHashMap b = new OffHeapHashMap();
+        b.put(bytes("hi"), bytes("there"));
+        assertTrue(b.containsKey(bytes("hi")));
+        byte[] value = b.get(bytes("hi"));
+        assertArrayEquals(bytes("there"), value);
+        value[0] = 'T';
+        assertArrayEquals(bytes("there"), b.get(bytes("hi")));
+        b.put(new byte[0], new byte[0]);
+        assertArrayEquals(new byte[0], b.get(new byte[0]));
+        assertNull(b.remove(bytes("hi"), bytes("here")));
+        assertArrayEquals(bytes("there"), b.remove(bytes("hi"), bytes("there")));
+        assertEquals(1, b.size());
+    }
+
+    /* Values that grow leave dead entries behind, which are compacted away; the keys must survive that. */
+    @Test
+    public void compactionTest() {
+        OffHeapHashMap b = new OffHeapHashMap();
+        byte[] big = new byte[1000];
+        for (int round = 1; round <= 5; round++) {
+            for (int i = 0; i < 2000; i++) {
+                byte[] value = Arrays.copyOf(big, 100 * round);
+                value[0] = (byte) i;
+                b.put(bytes(i), value);
+            }
+        }
+        assertEquals(2000, b.size());
+        for (int i = 0; i < 2000; i++) {
+            byte[] value = b.get(bytes(i));
+            assertEquals(500, value.length);
+            assertEquals((byte) i, value[0]);
+        }
+        for (int i = 0; i < 2000; i += 2) {
+            assertNotNull(b.remove(bytes(i)));
+        }
+        for (int i = 1; i < 2000; i += 2) {
+            assertEquals((byte) i, b.get(bytes(i))[0]);
+        }
+    }
+}
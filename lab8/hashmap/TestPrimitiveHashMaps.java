@@ -0,0 +1,91 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/** Tests of IntIntHashMap and LongObjectHashMap against Java's HashMap. */
+public class TestPrimitiveHashMaps {
+
+    @Test
+    public void intIntSanityTest() {
+        IntIntHashMap b = new IntIntHashMap(4, 0.75, -1);
+        assertEquals(-1, b.get(7));
+        assertFalse(b.containsKey(0));
+        b.put(0, 10);
+        b.put(7, 70);
+        b.put(-7, -70);
+        assertEquals(3, b.size());
+        assertEquals(10, b.get(0));
+        assertEquals(70, b.get(7));
+        assertEquals(-70, b.get(-7));
+        assertEquals(5, b.getOrDefault(8, 5));
+        b.put(7, 71);
+        assertEquals(3, b.size());
+        assertEquals(71, b.remove(7));
+        assertEquals(-1, b.remove(7));
+        assertEquals(10, b.remove(0));
+        assertFalse(b.containsKey(0));
+        assertEquals(1, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.containsKey(-7));
+    }
+
+    @Test
+    public void intIntRandomizedTest() {
+        IntIntHashMap b = new IntIntHashMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(61);
+        for (int i = 0; i < 50000; i++) {
+            // Multiples of 1024 share their low bits, and 0 is among them
+            int key = (random.nextInt(1000) - 500) * 1024;
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? 0 : removed, b.remove(key));
+            } else if (operation == 1) {
+                assertEquals(expected.containsKey(key), b.containsKey(key));
+                assertEquals(expected.getOrDefault(key, 0).intValue(), b.get(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        int[] keys = b.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), keys);
+    }
+
+    @Test
+    public void longObjectRandomizedTest() {
+        LongObjectHashMap<String> b = new LongObjectHashMap<>();
+        HashMap<Long, String> expected = new HashMap<>();
+        Random random = new Random(61);
+        for (int i = 0; i < 50000; i++) {
+            // Keys that differ only in their high bits
+            long key = (random.nextInt(1000) - 500L) << 40;
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else if (operation == 1) {
+                assertEquals(expected.containsKey(key), b.containsKey(key));
+                assertEquals(expected.get(key), b.get(key));
+            } else {
+                expected.put(key, "v" + i);
+                b.put(key, "v" + i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        long[] keys = b.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+        b.clear();
+        assertEquals(0, b.size());
+        assertNull(b.get(0));
+    }
+}
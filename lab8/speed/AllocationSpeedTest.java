@@ -0,0 +1,110 @@
+package speed;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Scanner;
+
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+import hashmap.MyHashMapALBuckets;
+import hashmap.MyHashMapHSBuckets;
+import hashmap.MyHashMapLLBuckets;
+import hashmap.MyHashMapPQBuckets;
+import hashmap.MyHashMapTSBuckets;
+
+/**
+ * Counts the bytes the maps allocate, rather than the time they take. Each map gets N puts of
+ * random strings of length L, made beforehand, and is then iterated over once.
+ * The counts come from com.sun.management.ThreadMXBean, which only HotSpot-based JVMs provide.
+ */
+public class AllocationSpeedTest {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into different types of maps "
+                + "as <String, Integer> pairs,\n"
+                + " and prints the bytes allocated by the puts and by one iteration.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = new String[N];
+            Integer[] values = new Integer[N];
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+                values[i] = i;
+            }
+
+            System.out.printf("%-30s %15s %15s %15s%n", "", "put bytes", "bytes / put", "iterate bytes");
+            printAllocations("hashmap.MyHashMap", new MyHashMap<>(), keys, values);
+            printAllocations("hashmap.MyHashMapALBuckets", new MyHashMapALBuckets<>(), keys, values);
+            printAllocations("hashmap.MyHashMapLLBuckets", new MyHashMapLLBuckets<>(), keys, values);
+            printAllocations("hashmap.MyHashMapTSBuckets", new MyHashMapTSBuckets<>(), keys, values);
+            printAllocations("hashmap.MyHashMapHSBuckets", new MyHashMapHSBuckets<>(), keys, values);
+            printAllocations("hashmap.MyHashMapPQBuckets", new MyHashMapPQBuckets<>(), keys, values);
+            printHashMapAllocations(keys, values);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns the bytes this thread has allocated so far. */
+    public static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    private static void printAllocations(String name, Map61B<String, Integer> map,
+                                         String[] keys, Integer[] values) {
+        long start = allocatedBytes();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        long putBytes = allocatedBytes() - start;
+        start = allocatedBytes();
+        int n = 0;
+        for (String key : map) {
+            n++;
+        }
+        long iterateBytes = allocatedBytes() - start;
+        printRow(name, putBytes, keys.length, iterateBytes, n == map.size());
+    }
+
+    private static void printHashMapAllocations(String[] keys, Integer[] values) {
+        HashMap<String, Integer> map = new HashMap<>();
+        long start = allocatedBytes();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        long putBytes = allocatedBytes() - start;
+        start = allocatedBytes();
+        int n = 0;
+        for (String key : map.keySet()) {
+            n++;
+        }
+        long iterateBytes = allocatedBytes() - start;
+        printRow("Java's Built-in HashMap", putBytes, keys.length, iterateBytes, n == map.size());
+    }
+
+    private static void printRow(String name, long putBytes, int puts, long iterateBytes, boolean iteratedAll) {
+        System.out.printf("%-30s %15d %15.1f %15d%n", name, putBytes, (double) putBytes / puts, iterateBytes);
+        if (!iteratedAll) {
+            System.out.println("--Wrong result: the iteration did not see every key.");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package speed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import hashmap.MyHashMap;
+
+/**
+ * Compares loading and updating hashmap.MyHashMap one key at a time and with its bulk operations.
+ * A batch of N random strings of length L is loaded with N put() calls and with one putAll(),
+ * N words drawn from N / 10 of them are counted with get() and put() and with merge(),
+ * and the half of the batch with even values is removed with remove() calls and with one removeIf().
+ * The strings are made before the clock starts, and each test runs ROUNDS times and reports the fastest.
+ */
+public class BatchLoadSpeedTest {
+    private static final int ROUNDS = 5;
+
+    /**
+     * Requests user input and performs tests of the map operations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program loads random "
+                + "Strings of length L\n"
+                + " Into hashmap.MyHashMap one at a time\n"
+                + " and with its bulk operations.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to load: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            StringUtils.setSeed(61);
+            Map<String, Integer> batch = new HashMap<>();
+            List<String> distinct = new ArrayList<>();
+            while (batch.size() < N) {
+                String s = StringUtils.randomString(L);
+                if (batch.put(s, batch.size()) == null) {
+                    distinct.add(s);
+                }
+            }
+            String[] words = new String[N];
+            for (int i = 0; i < N; i++) {
+                words[i] = distinct.get((int) ((long) i * 7919 % Math.max(1, N / 10)));
+            }
+
+            System.out.printf("%-25s %14s %14s%n", "", "one at a time", "bulk");
+            printRow("load", best(() -> {
+                MyHashMap<String, Integer> map = new MyHashMap<>();
+                for (Map.Entry<String, Integer> e : batch.entrySet()) {
+                    map.put(e.getKey(), e.getValue());
+                }
+                check(map.size() == N);
+            }), best(() -> {
+                MyHashMap<String, Integer> map = new MyHashMap<>();
+                map.putAll(batch);
+                check(map.size() == N);
+            }));
+            printRow("count words", best(() -> {
+                MyHashMap<String, Integer> counts = new MyHashMap<>();
+                for (String word : words) {
+                    Integer count = counts.get(word);
+                    counts.put(word, count == null ? 1 : count + 1);
+                }
+                check(counts.size() == Math.max(1, N / 10));
+            }), best(() -> {
+                MyHashMap<String, Integer> counts = new MyHashMap<>();
+                for (String word : words) {
+                    counts.merge(word, 1, Integer::sum);
+                }
+                check(counts.size() == Math.max(1, N / 10));
+            }));
+            printRow("remove even values", bestAfterLoad(batch, map -> {
+                List<String> even = new ArrayList<>();
+                for (String key : map) {
+                    if (map.get(key) % 2 == 0) {
+                        even.add(key);
+                    }
+                }
+                for (String key : even) {
+                    map.remove(key);
+                }
+                check(map.size() == N / 2);
+            }), bestAfterLoad(batch, map -> {
+                map.removeIf((k, v) -> v % 2 == 0);
+                check(map.size() == N / 2);
+            }));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    private interface MapWork {
+        void run(MyHashMap<String, Integer> map);
+    }
+
+    /** Returns the milliseconds of the fastest of ROUNDS runs of the work. */
+    private static double best(Runnable work) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            work.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    /** Returns the milliseconds of the fastest of ROUNDS runs of the work, each on a new map of the batch,
+     * which is loaded before the clock starts. */
+    private static double bestAfterLoad(Map<String, Integer> batch, MapWork work) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            MyHashMap<String, Integer> map = new MyHashMap<>();
+            map.putAll(batch);
+            long start = System.nanoTime();
+            work.run(map);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    private static void check(boolean rightResult) {
+        if (!rightResult) {
+            System.out.println("--Wrong result: the map has the wrong number of keys.");
+        }
+    }
+
+    private static void printRow(String name, double oneAtATime, double bulk) {
+        System.out.printf("%-25s %11.1f ms %11.1f ms%n", name, oneAtATime, bulk);
+    }
+}
@@ -6,11 +6,15 @@ import java.io.IOException;
 import java.util.Scanner;
 
 import hashmap.Map61B;
+import hashmap.MyHashMap;
 import hashmap.MyHashMapALBuckets;
 import hashmap.MyHashMapLLBuckets;
 import hashmap.MyHashMapTSBuckets;
 import hashmap.MyHashMapHSBuckets;
 import hashmap.MyHashMapPQBuckets;
+import hashmap.MyHashMapAdaptiveBuckets;
+import hashmap.MyHashMapOpenAddressing;
+import hashmap.MyHashMapCuckoo;
 
 /** Performs a timing test on three different set implementations.
  *  @author Neil Kulkarni adapted from Josh Hug, Brendan Hu
@@ -42,6 +46,9 @@ public class BucketsSpeedTest {
             timeRandomMap61B(new MyHashMapTSBuckets<>(), N, L);
             timeRandomMap61B(new MyHashMapHSBuckets<>(), N, L);
             timeRandomMap61B(new MyHashMapPQBuckets<>(), N, L);
+            timeRandomMap61B(new MyHashMapAdaptiveBuckets<>(), N, L);
+            timeRandomMap61B(new MyHashMapOpenAddressing<>(), N, L);
+            timeRandomMap61B(new MyHashMapCuckoo<>(), N, L);
 
             System.out.print("\nWould you like to try more timed-tests? (y/n)");
             repeat = input.nextLine();
@@ -63,6 +70,21 @@ public class BucketsSpeedTest {
         return sw.elapsedTime();
     }
 
+    /**
+     * Returns time needed to get N random strings of length L from the
+     * hashmap.Map61B 61bMap, which are the ones put into it if the seed is the same.
+     */
+    public static double getRandom(Map61B<String, Integer> map61B, int N, int L) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            if (map61B.get(StringUtils.randomString(L)) == null) {
+                System.out.println("--Wrong result: a key that was put is missing.");
+                break;
+            }
+        }
+        return sw.elapsedTime();
+    }
+
     /**
      * Attempts to insert N random strings of length L into map,
      * Prints time of the N insert calls, otherwise
@@ -70,8 +92,18 @@ public class BucketsSpeedTest {
      */
     public static void timeRandomMap61B(Map61B<String, Integer> map, int N, int L) {
         try {
+            StringUtils.setSeed(61);
             double mapTime = insertRandom(map, N, L);
-            System.out.printf(map.getClass() + ": %.2f sec\n", mapTime);
+            StringUtils.setSeed(61);
+            double getTime = getRandom(map, N, L);
+            System.out.printf(map.getClass() + ": %.2f sec, gets: %.2f sec\n", mapTime, getTime);
+            if (map instanceof MyHashMap) {
+                printOccupancy(((MyHashMap<?, ?>) map).bucketOccupancy());
+            }
+            if (map instanceof MyHashMapCuckoo) {
+                MyHashMapCuckoo<?, ?> cuckoo = (MyHashMapCuckoo<?, ?>) map;
+                System.out.printf("    table load: %.2f, stashed keys: %d%n", cuckoo.load(), cuckoo.stashSize());
+            }
         } catch (StackOverflowError e) {
             printInfoOnStackOverflow(N, L);
         } catch (RuntimeException e) {
@@ -96,6 +128,26 @@ public class BucketsSpeedTest {
         } while (ret <= 0);
         return ret;
     }
+    /**
+     * Prints how many buckets hold 0, 1, 2... nodes, given the histogram of MyHashMap.bucketOccupancy(),
+     * and the mean length of the chain a key is found in.
+     */
+    public static void printOccupancy(int[] histogram) {
+        StringBuilder line = new StringBuilder("    buckets by chain length:");
+        long nodes = 0;
+        long probes = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            if (histogram[k] != 0) {
+                line.append(" ").append(k).append(":").append(histogram[k]);
+            }
+            nodes += (long) k * histogram[k];
+            probes += (long) k * k * histogram[k];
+        }
+        System.out.println(line);
+        System.out.printf("    mean chain length per key: %.2f, longest chain: %d%n",
+                nodes == 0 ? 0 : (double) probes / nodes, histogram.length - 1);
+    }
+
     /* ------------------------------- Private methods ------------------------------- */
     /**
      * To be called after catching a StackOverflowError
@@ -0,0 +1,95 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.function.Function;
+
+import hashmap.Map61B;
+import hashmap.MyHashMapALBuckets;
+import hashmap.MyHashMapAdaptiveBuckets;
+import hashmap.MyHashMapLLBuckets;
+import hashmap.MyHashMapTSBuckets;
+
+/**
+ * Feeds the maps 2^n strings that all have the same hash code, like a hash flooding attack,
+ * then times a get of each of them. The mean, the 99th percentile and the slowest get are printed:
+ * with buckets that are scanned they grow with 2^n, with treeified buckets only with n.
+ * The slowest get is often a pause of the JVM rather than of the map, so the percentile is the one to read.
+ */
+public class CollisionSpeedTest {
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts the 2^n Strings of n blocks of \"Aa\" or \"BB\",\n"
+                + " which all have the same hash code, into different types of maps,\n"
+                + " and times a get of each of them.\n");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter n, the number of blocks: ");
+            int n = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = StringUtils.collidingStrings(n);
+
+            System.out.printf("%-40s %10s %12s %12s %12s%n", "", "put ms", "mean get ns", "p99 get ns", "max get ns");
+            timeCollisions(new MyHashMapLLBuckets<>(), keys);
+            timeCollisions(new MyHashMapALBuckets<>(), keys);
+            timeCollisions(new MyHashMapTSBuckets<>(), keys);
+            timeCollisions(new MyHashMapAdaptiveBuckets<>(), keys);
+            HashMap<String, Integer> hashMap = new HashMap<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < keys.length; i++) {
+                hashMap.put(keys[i], i);
+            }
+            long putTime = System.nanoTime() - start;
+            printGets("Java's Built-in HashMap", putTime, timeGets(hashMap::get, keys));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Puts the keys into the map, then prints the time of the puts and of each get. */
+    public static void timeCollisions(Map61B<String, Integer> map, String[] keys) {
+        long start = System.nanoTime();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        long putTime = System.nanoTime() - start;
+        printGets(map.getClass().getName(), putTime, timeGets(map::get, keys));
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    /** Returns the time of the get of each key in nanoseconds, checking that each key has its index as value. */
+    private static long[] timeGets(Function<String, Integer> get, String[] keys) {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            Integer value = get.apply(keys[i]);
+            latencies[i] = System.nanoTime() - start;
+            if (value == null || value != i) {
+                System.out.println("--Wrong result: got " + value + " for " + keys[i] + ".");
+                break;
+            }
+        }
+        return latencies;
+    }
+
+    private static void printGets(String name, long putTime, long[] latencies) {
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long p99 = sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+        System.out.printf("%-40s %10.1f %12.0f %12d %12d%n", name, putTime / 1e6,
+                (double) total / latencies.length, p99, sorted[sorted.length - 1]);
+    }
+}
@@ -0,0 +1,116 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import hashmap.ConcurrentMyHashMap;
+import hashmap.MyHashMap;
+
+/**
+ * Measures the throughput of maps shared by 1 to T threads. Every thread does the same number of
+ * operations on random keys of a map that starts with N keys: 90% gets and 10% puts.
+ * hashmap.ConcurrentMyHashMap is run against a hashmap.MyHashMap behind one lock and Java's ConcurrentHashMap.
+ */
+public class ConcurrentSpeedTest {
+    private static final int OPS_PER_THREAD = 1000000;
+    private static final int PUT_PERCENT = 10;
+
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program shares maps of N Integer keys between threads,\n"
+                + " which each do " + OPS_PER_THREAD + " gets and puts of random keys,\n"
+                + " and prints the operations per second of all the threads together.\n");
+        System.out.print("What would you like the most threads T to be? ("
+                + Runtime.getRuntime().availableProcessors() + " processors): ");
+        int T = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # keys N in each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            System.out.printf("%-10s %25s %25s %25s%n", "threads",
+                    "ConcurrentMyHashMap Mops/s", "locked MyHashMap Mops/s", "ConcurrentHashMap Mops/s");
+            for (int threads = 1; ; threads = Math.min(threads * 2, T)) {
+                ConcurrentMyHashMap<Integer, Integer> concurrent = new ConcurrentMyHashMap<>();
+                double concurrentOps = throughput(threads, N, concurrent::get, concurrent::put);
+                MyHashMap<Integer, Integer> locked = new MyHashMap<>();
+                double lockedOps = throughput(threads, N, k -> {
+                    synchronized (locked) {
+                        return locked.get(k);
+                    }
+                }, (k, v) -> {
+                    synchronized (locked) {
+                        locked.put(k, v);
+                    }
+                });
+                ConcurrentHashMap<Integer, Integer> hashMap = new ConcurrentHashMap<>();
+                double hashMapOps = throughput(threads, N, hashMap::get, hashMap::put);
+                System.out.printf("%-10d %25.2f %25.2f %25.2f%n", threads,
+                        concurrentOps / 1e6, lockedOps / 1e6, hashMapOps / 1e6);
+                if (threads == T) {
+                    break;
+                }
+            }
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Puts the keys 0 to N - 1 with put, then starts the threads together and returns
+     * the operations per second they did until the last one finished.
+     */
+    public static double throughput(int threads, int N, Function<Integer, Integer> get,
+                                    BiConsumer<Integer, Integer> put) throws InterruptedException {
+        for (int i = 0; i < N; i++) {
+            put.accept(i, i);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] misses = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                Random r = new Random(61 + thread);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    int key = r.nextInt(N);
+                    if (r.nextInt(100) < PUT_PERCENT) {
+                        put.accept(key, i);
+                    } else if (get.apply(key) == null) {
+                        misses[thread]++;
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        for (long miss : misses) {
+            if (miss != 0) {
+                System.out.println("--Wrong result: " + miss + " keys went missing.");
+            }
+        }
+        return (double) threads * OPS_PER_THREAD / seconds;
+    }
+}
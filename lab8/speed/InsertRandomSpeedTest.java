@@ -8,6 +8,7 @@ import edu.princeton.cs.algs4.Stopwatch;
 import hashmap.Map61B;
 import hashmap.ULLMap;
 import hashmap.MyHashMap;
+import hashmap.MyHashMapCuckoo;
 
 /** Performs a timing test on three different set implementations.
  *  @author Josh Hug
@@ -39,6 +40,10 @@ public class InsertRandomSpeedTest {
             timeRandomMap61B(new MyHashMap<String, Integer>(),
                     waitForPositiveInt(input), L);
 
+            System.out.print("\nEnter # strings to insert into hashmap.MyHashMapCuckoo: ");
+            timeRandomMap61B(new MyHashMapCuckoo<String, Integer>(),
+                    waitForPositiveInt(input), L);
+
             System.out.print("\nEnter # strings to insert into Java's HashMap: ");
             timeRandomHashMap(new HashMap<String, Integer>(),
                     waitForPositiveInt(input), L);
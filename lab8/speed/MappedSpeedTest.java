@@ -0,0 +1,97 @@
+package speed;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import hashmap.MappedHashMap;
+import hashmap.MyHashMap;
+
+/**
+ * Times how long a map of N random strings of length L takes to come back after a restart.
+ * hashmap.MappedHashMap is written to a temporary directory and closed, then opened again and asked for one key,
+ * and then opened once more without having been closed, which rebuilds its table from the log.
+ * hashmap.MyHashMap has nothing to open, so it is timed putting the N strings again.
+ */
+public class MappedSpeedTest {
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program puts random "
+                + "Strings of length L\n"
+                + " Into a map in memory-mapped files,\n"
+                + " and times opening it again.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            Path dir = Files.createTempDirectory("mapped");
+            Path base = dir.resolve("map");
+            long start = System.nanoTime();
+            StringUtils.setSeed(61);
+            MappedHashMap map = MappedHashMap.open(base);
+            for (int i = 0; i < N; i++) {
+                map.put(bytes(StringUtils.randomString(L)), ByteBuffer.allocate(4).putInt(i).array());
+            }
+            map.close();
+            printRow("build and close", start);
+
+            StringUtils.setSeed(61);
+            byte[] first = bytes(StringUtils.randomString(L));
+            start = System.nanoTime();
+            map = MappedHashMap.open(base);
+            boolean found = map.get(first) != null;
+            printRow("open after close", start);
+            if (!found || map.size() != N) {
+                System.out.println("--Wrong result: the map lost entries.");
+            }
+
+            // Left open, like a process that was killed
+            start = System.nanoTime();
+            map = MappedHashMap.open(base);
+            found = map.get(first) != null;
+            printRow("open after a crash", start);
+            if (!found || map.size() != N) {
+                System.out.println("--Wrong result: the map lost entries.");
+            }
+            map.close();
+
+            start = System.nanoTime();
+            StringUtils.setSeed(61);
+            MyHashMap<String, Integer> heapMap = new MyHashMap<>();
+            for (int i = 0; i < N; i++) {
+                heapMap.put(StringUtils.randomString(L), i);
+            }
+            printRow("MyHashMap put again", start);
+
+            for (String name : new String[] {"map.table", "map.log"}) {
+                Files.delete(dir.resolve(name));
+            }
+            Files.delete(dir);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void printRow(String name, long start) {
+        System.out.printf("%-25s %10.1f ms%n", name, (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,123 @@
+package speed;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import hashmap.MyHashMap;
+import hashmap.OffHeapHashMap;
+
+/**
+ * Compares the garbage collection a map costs on the heap and off it. Each map gets N random strings of
+ * length L with Integer values, then N gets. The collections during the puts and gets are counted and timed,
+ * and so is one full collection afterwards, which has to trace whatever the map keeps on the heap.
+ * hashmap.OffHeapHashMap gets the strings and Integers as bytes.
+ */
+public class OffHeapSpeedTest {
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into a map on the heap and a map off it,\n"
+                + " and prints the garbage collections they cause.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            System.out.printf("%-25s %10s %8s %10s %14s %10s%n",
+                    "", "total ms", "GCs", "GC ms", "full GC ms", "heap MB");
+            timeMyHashMap(N, L);
+            timeOffHeapHashMap(N, L);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns the number of collections so far, of all the collectors. */
+    public static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /** Returns the milliseconds spent collecting so far, by all the collectors. */
+    public static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    private static void timeMyHashMap(int N, int L) {
+        System.gc();
+        long count = gcCount();
+        long millis = gcMillis();
+        long start = System.nanoTime();
+        StringUtils.setSeed(61);
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < N; i++) {
+            map.put(StringUtils.randomString(L), i);
+        }
+        StringUtils.setSeed(61);
+        long found = 0;
+        for (int i = 0; i < N; i++) {
+            found += map.get(StringUtils.randomString(L)) != null ? 1 : 0;
+        }
+        printRow("hashmap.MyHashMap", start, count, millis, found == N);
+        map.put("", 0); // keep the map alive through the full collection
+    }
+
+    private static void timeOffHeapHashMap(int N, int L) {
+        System.gc();
+        long count = gcCount();
+        long millis = gcMillis();
+        long start = System.nanoTime();
+        StringUtils.setSeed(61);
+        OffHeapHashMap map = new OffHeapHashMap();
+        for (int i = 0; i < N; i++) {
+            map.put(StringUtils.randomString(L).getBytes(StandardCharsets.UTF_8),
+                    ByteBuffer.allocate(4).putInt(i).array());
+        }
+        StringUtils.setSeed(61);
+        long found = 0;
+        for (int i = 0; i < N; i++) {
+            found += map.get(StringUtils.randomString(L).getBytes(StandardCharsets.UTF_8)) != null ? 1 : 0;
+        }
+        printRow("hashmap.OffHeapHashMap", start, count, millis, found == N);
+        map.put(new byte[0], new byte[0]); // keep the map alive through the full collection
+    }
+
+    /** Prints the time since start, the collections since count and millis, and the time of a full collection. */
+    private static void printRow(String name, long start, long count, long millis, boolean foundAll) {
+        double totalMillis = (System.nanoTime() - start) / 1e6;
+        long gcs = gcCount() - count;
+        long gcTime = gcMillis() - millis;
+        long fullStart = System.nanoTime();
+        System.gc();
+        double fullMillis = (System.nanoTime() - fullStart) / 1e6;
+        Runtime runtime = Runtime.getRuntime();
+        double heapMB = (runtime.totalMemory() - runtime.freeMemory()) / 1e6;
+        System.out.printf("%-25s %10.1f %8d %10d %14.1f %10.1f%n", name, totalMillis, gcs, gcTime, fullMillis, heapMB);
+        if (!foundAll) {
+            System.out.println("--Wrong result: some keys were not found.");
+        }
+    }
+}
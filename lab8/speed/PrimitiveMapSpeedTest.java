@@ -0,0 +1,193 @@
+package speed;
+
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Scanner;
+
+import hashmap.IntIntHashMap;
+import hashmap.LongObjectHashMap;
+import hashmap.MyHashMap;
+
+/**
+ * Performs a timing test of the primitive maps against hashmap.MyHashMap and Java's HashMap,
+ * which box every key. Each map gets N puts and then N gets of the same keys,
+ * once with random keys and once with the sequential keys 0 to N - 1.
+ */
+public class PrimitiveMapSpeedTest {
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program puts N int keys and then gets them back,\n"
+                + " from maps of int to int and from maps of long to String.\n");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # keys to put into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            for (boolean random : new boolean[]{true, false}) {
+                int[] keys = keys(N, random);
+                System.out.println(random ? "\nRandom keys:" : "\nSequential keys:");
+                printTime("hashmap.IntIntHashMap", timeIntIntHashMap(keys));
+                printTime("hashmap.MyHashMap<Integer, Integer>", timeMyHashMapInteger(keys));
+                printTime("Java's HashMap<Integer, Integer>", timeHashMapInteger(keys));
+                printTime("hashmap.LongObjectHashMap<String>", timeLongObjectHashMap(keys));
+                printTime("hashmap.MyHashMap<Long, String>", timeMyHashMapLong(keys));
+                printTime("Java's HashMap<Long, String>", timeHashMapLong(keys));
+            }
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns N random keys, or the keys 0 to N - 1 in order. */
+    public static int[] keys(int N, boolean random) {
+        int[] keys = new int[N];
+        Random r = new Random(61);
+        for (int i = 0; i < N; i++) {
+            keys[i] = random ? r.nextInt() : i;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns time needed to put the keys into an IntIntHashMap and get them back.
+     * The sum of the values is checked afterwards, so the gets cannot be optimized away.
+     */
+    public static double timeIntIntHashMap(int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        IntIntHashMap map = new IntIntHashMap();
+        for (int key : keys) {
+            map.put(key, key);
+        }
+        long sum = 0;
+        for (int key : keys) {
+            sum += map.get(key);
+        }
+        double time = sw.elapsedTime();
+        check(sum, keys);
+        return time;
+    }
+
+    /** Returns time needed to put the keys into a MyHashMap<Integer, Integer> and get them back. */
+    public static double timeMyHashMapInteger(int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        for (int key : keys) {
+            map.put(key, key);
+        }
+        long sum = 0;
+        for (int key : keys) {
+            sum += map.get(key);
+        }
+        double time = sw.elapsedTime();
+        check(sum, keys);
+        return time;
+    }
+
+    /** Returns time needed to put the keys into a HashMap<Integer, Integer> and get them back. */
+    public static double timeHashMapInteger(int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int key : keys) {
+            map.put(key, key);
+        }
+        long sum = 0;
+        for (int key : keys) {
+            sum += map.get(key);
+        }
+        double time = sw.elapsedTime();
+        check(sum, keys);
+        return time;
+    }
+
+    /** Returns time needed to put the keys as longs into a LongObjectHashMap and get them back. */
+    public static double timeLongObjectHashMap(int[] keys) {
+        String[] values = values(keys.length);
+        Stopwatch sw = new Stopwatch();
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        long found = 0;
+        for (int key : keys) {
+            found += map.get(key) != null ? 1 : 0;
+        }
+        double time = sw.elapsedTime();
+        check(found, keys.length);
+        return time;
+    }
+
+    /** Returns time needed to put the keys as longs into a MyHashMap<Long, String> and get them back. */
+    public static double timeMyHashMapLong(int[] keys) {
+        String[] values = values(keys.length);
+        Stopwatch sw = new Stopwatch();
+        MyHashMap<Long, String> map = new MyHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put((long) keys[i], values[i]);
+        }
+        long found = 0;
+        for (int key : keys) {
+            found += map.get((long) key) != null ? 1 : 0;
+        }
+        double time = sw.elapsedTime();
+        check(found, keys.length);
+        return time;
+    }
+
+    /** Returns time needed to put the keys as longs into a HashMap<Long, String> and get them back. */
+    public static double timeHashMapLong(int[] keys) {
+        String[] values = values(keys.length);
+        Stopwatch sw = new Stopwatch();
+        HashMap<Long, String> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put((long) keys[i], values[i]);
+        }
+        long found = 0;
+        for (int key : keys) {
+            found += map.get((long) key) != null ? 1 : 0;
+        }
+        double time = sw.elapsedTime();
+        check(found, keys.length);
+        return time;
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    /** The values put in the maps of long to String, made before the clock starts. */
+    private static String[] values(int N) {
+        String[] values = new String[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = "v" + i;
+        }
+        return values;
+    }
+
+    /** Checks that the gets added up to the sum of the keys, since every value is its key. */
+    private static void check(long sum, int[] keys) {
+        long expected = 0;
+        for (int key : keys) {
+            expected += key;
+        }
+        check(sum, expected);
+    }
+
+    /** Prints a message if a map lost or invented entries. */
+    private static void check(long actual, long expected) {
+        if (actual != expected) {
+            System.out.println("--Wrong result: got " + actual + ", expected " + expected + ".");
+        }
+    }
+
+    private static void printTime(String name, double time) {
+        System.out.printf("%-40s: %.2f sec\n", name, time);
+    }
+}
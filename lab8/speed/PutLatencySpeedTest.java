@@ -0,0 +1,90 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.function.BiConsumer;
+
+import hashmap.MyHashMap;
+
+/**
+ * Times every single put of N random strings, to see the puts that pay for a resize.
+ * The total time hides them, so the latency percentiles and the slowest put are printed too.
+ * hashmap.MyHashMap is run with the resize that moves every node at once, and with incremental rehash.
+ */
+public class PutLatencySpeedTest {
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into different types of maps "
+                + "as <String, Integer> pairs,\n"
+                + " and times each insertion.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = new String[N];
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+            }
+
+            System.out.printf("%-40s %10s %10s %10s %10s %10s%n",
+                    "", "total ms", "p50 us", "p99 us", "p99.9 us", "max us");
+            MyHashMap<String, Integer> stopTheWorld = new MyHashMap<>();
+            printLatencies("hashmap.MyHashMap", timePuts(stopTheWorld::put, keys));
+            MyHashMap<String, Integer> incremental = new MyHashMap<>(16, 0.75, true);
+            printLatencies("hashmap.MyHashMap (incremental resize)", timePuts(incremental::put, keys));
+            HashMap<String, Integer> hashMap = new HashMap<>();
+            printLatencies("Java's Built-in HashMap", timePuts(hashMap::put, keys));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Puts every key with put, and returns the time of each put in nanoseconds.
+     */
+    public static long[] timePuts(BiConsumer<String, Integer> put, String[] keys) {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            put.accept(keys[i], i);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    /**
+     * Prints the total time, the percentiles and the maximum of the latencies.
+     */
+    private static void printLatencies(String name, long[] latencies) {
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-40s %10.1f %10.2f %10.2f %10.2f %10.1f%n", name, total / 1e6,
+                percentile(sorted, 0.5) / 1e3, percentile(sorted, 0.99) / 1e3,
+                percentile(sorted, 0.999) / 1e3, sorted[sorted.length - 1] / 1e3);
+    }
+
+    /** Returns the latency below which the given fraction of the sorted latencies are. */
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,104 @@
+package speed;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Scanner;
+
+import hashmap.MyHashMap;
+
+/**
+ * Measures the heap a map keeps after most of its keys are removed. Each map gets N random strings
+ * of length L, then all but N / 1000 of them are removed. The heap used by the map is printed when
+ * it is full and after the removes, measured as the used heap after a garbage collection.
+ * The strings themselves are made beforehand and kept, so they are not counted.
+ */
+public class RetainedMemorySpeedTest {
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into different types of maps "
+                + "as <String, Integer> pairs,\n"
+                + " removes all but a thousandth of them, and prints the heap the maps retain.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = new String[N];
+            Integer[] values = new Integer[N];
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+                values[i] = i;
+            }
+
+            System.out.printf("%-45s %12s %12s%n", "", "full KB", "retained KB");
+            measure("hashmap.MyHashMap (shrinks on remove)", new MyHashMap<>(), keys, values, false);
+            measure("hashmap.MyHashMap (minLoad 0)", new MyHashMap<>(16, 0.75, 0.0), keys, values, false);
+            measure("hashmap.MyHashMap (minLoad 0, then trimToSize)",
+                    new MyHashMap<>(16, 0.75, 0.0), keys, values, true);
+            measureHashMap(keys, values);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns the heap in use after collecting the garbage, as far as System.gc() can be trusted to. */
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    private static void measure(String name, MyHashMap<String, Integer> map,
+                                String[] keys, Integer[] values, boolean trim) {
+        long empty = usedHeap();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        long full = usedHeap() - empty;
+        for (int i = keys.length / 1000; i < keys.length; i++) {
+            map.remove(keys[i]);
+        }
+        if (trim) {
+            map.trimToSize();
+        }
+        long retained = usedHeap() - empty;
+        printRow(name, full, retained, map.size() == keys.length / 1000);
+    }
+
+    private static void measureHashMap(String[] keys, Integer[] values) {
+        HashMap<String, Integer> map = new HashMap<>();
+        long empty = usedHeap();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        long full = usedHeap() - empty;
+        for (int i = keys.length / 1000; i < keys.length; i++) {
+            map.remove(keys[i]);
+        }
+        long retained = usedHeap() - empty;
+        printRow("Java's Built-in HashMap", full, retained, map.size() == keys.length / 1000);
+    }
+
+    private static void printRow(String name, long full, long retained, boolean keptRightKeys) {
+        System.out.printf("%-45s %12d %12d%n", name, full / 1024, retained / 1024);
+        if (!keptRightKeys) {
+            System.out.println("--Wrong result: the map lost its keys.");
+        }
+    }
+}
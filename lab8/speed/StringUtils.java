@@ -77,6 +77,23 @@ public class StringUtils {
         return sb.toString();
     }
 
+    /**
+     * Returns the 2^N strings made of N blocks of "Aa" or "BB". "Aa" and "BB" have
+     * the same hash code, so all of them do, and they all land in one bucket of any map.
+     */
+    public static String[] collidingStrings(int n) {
+        String[] strings = {""};
+        for (int i = 0; i < n; i++) {
+            String[] longer = new String[strings.length * 2];
+            for (int j = 0; j < strings.length; j++) {
+                longer[2 * j] = strings[j] + "Aa";
+                longer[2 * j + 1] = strings[j] + "BB";
+            }
+            strings = longer;
+        }
+        return strings;
+    }
+
     /** Returns true if S is all 'z'. False for empty strings */
     public static boolean isAllzs(String s) {
         return Pattern.matches("[z]+", s);
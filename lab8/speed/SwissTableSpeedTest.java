@@ -0,0 +1,97 @@
+package speed;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import hashmap.MyHashMap;
+import hashmap.MyHashMapOpenAddressing;
+import hashmap.MyHashMapSwissTable;
+
+/**
+ * Compares lookups that hit and lookups that miss. Each map gets N random strings of length L, then is asked
+ * for the same N strings, and for N other ones it does not have. The strings are made before the clock starts,
+ * and each pass of lookups runs ROUNDS times, so the best one is after the JIT has compiled it.
+ */
+public class SwissTableSpeedTest {
+    private static final int ROUNDS = 5;
+
+    /**
+     * Requests user input and performs tests of the map implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into different types of maps,\n"
+                + " and times getting keys that are there and keys that are not.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            StringUtils.setSeed(61);
+            String[] present = new String[N];
+            String[] absent = new String[N];
+            for (int i = 0; i < N; i++) {
+                present[i] = StringUtils.randomString(L);
+            }
+            for (int i = 0; i < N; i++) {
+                absent[i] = StringUtils.randomString(L) + "!";
+            }
+
+            System.out.printf("%-35s %12s %12s %12s%n", "", "put ns", "hit ns", "miss ns");
+            MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
+            timeMap("hashmap.MyHashMap", myHashMap::put, myHashMap::get, present, absent);
+            MyHashMapOpenAddressing<String, Integer> openAddressing = new MyHashMapOpenAddressing<>();
+            timeMap("hashmap.MyHashMapOpenAddressing", openAddressing::put, openAddressing::get, present, absent);
+            MyHashMapSwissTable<String, Integer> swissTable = new MyHashMapSwissTable<>();
+            timeMap("hashmap.MyHashMapSwissTable", swissTable::put, swissTable::get, present, absent);
+            HashMap<String, Integer> hashMap = new HashMap<>();
+            timeMap("Java's Built-in HashMap", hashMap::put, hashMap::get, present, absent);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /* ------------------------------- Private methods ------------------------------- */
+
+    /** Puts the present keys with put, then prints the nanoseconds per put, per hit and per miss. */
+    private static void timeMap(String name, BiConsumer<String, Integer> put, Function<String, Integer> get,
+                                String[] present, String[] absent) {
+        long start = System.nanoTime();
+        for (int i = 0; i < present.length; i++) {
+            put.accept(present[i], i);
+        }
+        double putNanos = (double) (System.nanoTime() - start) / present.length;
+        double hitNanos = bestLookup(get, present, present.length, name);
+        double missNanos = bestLookup(get, absent, 0, name);
+        System.out.printf("%-35s %12.1f %12.1f %12.1f%n", name, putNanos, hitNanos, missNanos);
+    }
+
+    /** Returns the nanoseconds per get of the fastest of ROUNDS passes over keys, which should find expected. */
+    private static double bestLookup(Function<String, Integer> get, String[] keys, int expected, String name) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int found = 0;
+            for (String key : keys) {
+                if (get.apply(key) != null) {
+                    found++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            if (found != expected) {
+                System.out.println("--Wrong result: " + name + " found " + found + " keys, not " + expected + ".");
+            }
+        }
+        return (double) best / keys.length;
+    }
+}
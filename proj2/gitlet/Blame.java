@@ -0,0 +1,124 @@
+package gitlet;
+
+import java.io.File;
+import java.util.*;
+
+import static gitlet.Repository.*;
+import static gitlet.Utils.*;
+
+/* The blame command: for each line of a file in the current commit, find the commit that introduced it.
+ *  It walks the first-parent history, and commits that keep the same blob of the file are skipped by blob ID.
+ *  Each version of the file is a (blob ID, commit ID) pair, where the commit is the one that introduced the blob.
+ *  The line origins of every version are cached in .gitlet/blame/, one file per version with one commit UID per line.
+ *  So blaming again after a new commit only diffs the newest version against the cached one before it. */
+public class Blame {
+    /* The .gitlet/blame/ directory of cached line origins. */
+    public static final File BLAME_DIR = join(GITLET_DIR, "blame");
+
+    /* A version of the file: the blob, and the commit that introduced it. */
+    private static class Version {
+        final String blobUID;
+        final Commit commit;
+
+        Version(String blobUID, Commit commit) {
+            this.blobUID = blobUID;
+            this.commit = commit;
+        }
+    }
+
+    /* Print each line of the file in the current commit, with the commit that introduced it. */
+    public static void blame(String fileName) {
+        fileName = toWorkingPath(fileName);
+        Commit head = getCurrentCommit();
+        if (!head.track(fileName)) {
+            handleErrorAndExit("File does not exist in that commit.");
+        }
+
+        // Walk back until a cached version or the version that added the file
+        Deque<Version> uncached = new ArrayDeque<>();
+        String[] origins = null;
+        String[] lines = null;
+        Commit runStart = head;
+        String runBlob = head.getFileUID(fileName);
+        while (true) {
+            Commit parent = runStart.parentCommit();
+            if (parent != null && runBlob.equals(parent.getFileUID(fileName))) {
+                runStart = parent;
+                continue;
+            }
+            // runStart introduced runBlob
+            Version version = new Version(runBlob, runStart);
+            origins = readCache(version);
+            if (origins != null) {
+                lines = readLines(version.blobUID);
+                break;
+            }
+            uncached.push(version);
+            if (parent == null || !parent.track(fileName)) {
+                break;
+            }
+            runStart = parent;
+            runBlob = parent.getFileUID(fileName);
+        }
+
+        // Replay the uncached versions from the oldest, diffing each against the one before it
+        while (!uncached.isEmpty()) {
+            Version version = uncached.pop();
+            String[] newLines = readLines(version.blobUID);
+            String[] newOrigins = new String[newLines.length];
+            int[] matches = lines == null ? new int[newLines.length] : Diff.matchLines(lines, newLines);
+            for (int i = 0; i < newLines.length; i++) {
+                newOrigins[i] = lines != null && matches[i] >= 0 ? origins[matches[i]] : version.commit.getUID();
+            }
+            writeCache(version, newOrigins);
+            lines = newLines;
+            origins = newOrigins;
+        }
+
+        printBlame(lines, origins);
+    }
+
+    /* Print the lines as "uid7 (date lineNumber) line". */
+    private static void printBlame(String[] lines, String[] origins) {
+        Map<String, String> dates = new HashMap<>();
+        int width = String.valueOf(lines.length).length();
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            String date = dates.computeIfAbsent(origins[i],
+                    UID -> readObject(join(OBJECTS_DIR, UID), Commit.class).getFormattedTimestamp());
+            String lineNumber = String.valueOf(i + 1);
+            out.append(origins[i], 0, 7).append(" (").append(date).append(' ');
+            out.append(" ".repeat(width - lineNumber.length())).append(lineNumber).append(") ");
+            out.append(lines[i]).append('\n');
+        }
+        System.out.print(out);
+    }
+
+    /* Return the lines of the blob. */
+    private static String[] readLines(String blobUID) {
+        return Diff.lines(readObject(join(OBJECTS_DIR, blobUID), Blob.class).getContent());
+    }
+
+    /* Return the cached line origins of the version, or null if it is not cached. */
+    private static String[] readCache(Version version) {
+        File cacheFile = join(BLAME_DIR, version.blobUID + "-" + version.commit.getUID());
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        String content = readContentsAsString(cacheFile);
+        return content.isEmpty() ? new String[0] : content.split("\n");
+    }
+
+    /* Cache the line origins of the version. */
+    private static void writeCache(Version version, String[] origins) {
+        BLAME_DIR.mkdirs();
+        File cacheFile = join(BLAME_DIR, version.blobUID + "-" + version.commit.getUID());
+        writeContents(cacheFile, String.join("\n", origins));
+    }
+
+    /* A helper method to handleError. */
+    private static void handleErrorAndExit(String errorMessage) {
+        System.out.println(errorMessage);
+        System.exit(0);
+    }
+}
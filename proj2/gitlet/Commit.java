@@ -2,7 +2,10 @@ package gitlet;
 
 import java.io.File;
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import static gitlet.Repository.CWD;
@@ -11,11 +14,17 @@ import static gitlet.Utils.*;
 
 /* Represents a gitlet commit object.*/
 public class Commit implements Serializable, Dumpable {
+    /* The date format of log. DateTimeFormatter is immutable and thread-safe, so one instance serves every commit. */
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE MMM d HH:mm:ss yyyy Z", Locale.ENGLISH);
 
     /* The message of this Commit. */
     public String message;
-    /* The time when the Commit is created. */
-    public String timestamp;
+    /* The time when the Commit is created, in milliseconds since the epoch.
+     * Comparing commits by time is just comparing numbers, the text is only made when it is printed. */
+    public long timestamp;
+    /* The offset from UTC of the time zone where the Commit is created, in seconds. */
+    public int timezoneOffset;
     /* The SHA-1 code of its parent Commit. */
     public String parentUID;
     /* The SHA-1 code of its second parent Commit. */
@@ -29,7 +38,9 @@ public class Commit implements Serializable, Dumpable {
     /* Constructor for one commit. */
     public Commit(String message, String parentUID, String secondParentUID, Map<String, String> fileMap) {
         this.message = message;
-        this.timestamp = getCurrentTimestamp();
+        Instant now = Instant.now();
+        this.timestamp = now.toEpochMilli();
+        this.timezoneOffset = ZoneId.systemDefault().getRules().getOffset(now).getTotalSeconds();
         this.parentUID = parentUID;
         this.secondParentUID = secondParentUID;
         this.fileMap = fileMap;
@@ -72,9 +83,19 @@ public class Commit implements Serializable, Dumpable {
     /* Write the commit object to the specified file:
     Serialize commit itself and store in the .gitlet/objects */
     public void save() {
-        /* The sequence of iteration for HashMap is truly random.
-         *  So, we should calculate the UID just once and immediately store it. */
+        computeUID();
+        write();
+    }
+
+    /* Calculate the UID of the commit and store it, without writing the commit yet.
+     *  The sequence of iteration for HashMap is truly random.
+     *  So, we should calculate the UID just once and immediately store it. */
+    public void computeUID() {
         UID = Utils.sha1((Object) Utils.serialize(this));
+    }
+
+    /* Write the commit to .gitlet/objects under the UID computed last. */
+    public void write() {
         File commitFile = join(OBJECTS_DIR, this.getUID());
         writeObject(commitFile, this);
     }
@@ -102,10 +123,10 @@ public class Commit implements Serializable, Dumpable {
         return fileMap.containsKey(fileName);
     }
 
-    /* A helper method to get the current timestamp. */
-    private String getCurrentTimestamp() {
-        SimpleDateFormat sdf = new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy Z", Locale.ENGLISH);
-        return sdf.format(new Date());
+    /* Return the timestamp in the format of log, such as "Thu Nov 9 20:00:05 2017 -0800".
+     *  It is formatted in the time zone where the commit was made. */
+    public String getFormattedTimestamp() {
+        return DATE_FORMATTER.format(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.ofTotalSeconds(timezoneOffset)));
     }
 
 
@@ -188,7 +209,7 @@ public class Commit implements Serializable, Dumpable {
     @Override
     public void dump() {
         System.out.println("Message: " + message);
-        System.out.println("Time: " + timestamp);
+        System.out.println("Time: " + getFormattedTimestamp());
         System.out.println("ParentUID：" + parentUID);
         for (String fileName : fileMap.keySet()) {
             System.out.println(fileName + " -> " + fileMap.get(fileName));
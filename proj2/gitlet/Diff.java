@@ -0,0 +1,116 @@
+package gitlet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/* The line diff engine of gitlet, using Myers' O(ND) difference algorithm.
+ *  Lines are first turned into ints, so the search compares ints instead of strings,
+ *  and the common prefix and suffix are matched before the search even starts. */
+class Diff {
+
+    /* Split the content into lines. A trailing newline does not start another line. */
+    static String[] lines(byte[] content) {
+        String text = new String(content, StandardCharsets.UTF_8);
+        if (text.isEmpty()) {
+            return new String[0];
+        }
+        if (text.endsWith("\n")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        return text.split("\n", -1);
+    }
+
+    /* Return, for each line of b, the index of the line of a it is kept from, or -1 if it is inserted in b.
+     *  The matched lines form a longest common subsequence of a and b. */
+    static int[] matchLines(String[] a, String[] b) {
+        int[] matches = new int[b.length];
+        Arrays.fill(matches, -1);
+
+        // Lines equal in content share the same id
+        Map<String, Integer> ids = new HashMap<>();
+        int[] idsA = new int[a.length];
+        int[] idsB = new int[b.length];
+        for (int i = 0; i < a.length; i++) {
+            idsA[i] = ids.computeIfAbsent(a[i], line -> ids.size());
+        }
+        for (int j = 0; j < b.length; j++) {
+            idsB[j] = ids.computeIfAbsent(b[j], line -> ids.size());
+        }
+
+        // Match the common prefix and suffix directly
+        int start = 0;
+        while (start < a.length && start < b.length && idsA[start] == idsB[start]) {
+            matches[start] = start;
+            start++;
+        }
+        int endA = a.length;
+        int endB = b.length;
+        while (endA > start && endB > start && idsA[endA - 1] == idsB[endB - 1]) {
+            matches[--endB] = --endA;
+        }
+
+        myers(idsA, start, endA, idsB, start, endB, matches);
+        return matches;
+    }
+
+    /* Find the shortest edit script between a[startA, endA) and b[startB, endB) and record the kept lines.
+     *  For each number of edits d, v[k] is the furthest x reached on diagonal k = x - y. The part of v that
+     *  step d reads is saved, then the path is traced back from the end through those snapshots. */
+    private static void myers(int[] a, int startA, int endA, int[] b, int startB, int endB, int[] matches) {
+        int n = endA - startA;
+        int m = endB - startB;
+        if (n == 0 || m == 0) {
+            return;
+        }
+        int max = n + m;
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int editCount = -1;
+        for (int d = 0; d <= max && editCount < 0; d++) {
+            // Diagonals -d-1 to d+1 are all that step d reads
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[startA + x] == b[startB + y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    editCount = d;
+                    break;
+                }
+            }
+        }
+
+        int x = n;
+        int y = m;
+        for (int d = editCount; d >= 0; d--) {
+            int[] snapshot = trace.get(d);
+            int k = x - y;
+            int prevK;
+            if (k == -d || (k != d && snapshot[k - 1 + d + 1] < snapshot[k + 1 + d + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            int prevX = snapshot[prevK + d + 1];
+            int prevY = prevX - prevK;
+            while (x > prevX && y > prevY) {
+                x--;
+                y--;
+                matches[startB + y] = startA + x;
+            }
+            x = prevX;
+            y = prevY;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package gitlet;
+
+import java.io.File;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static gitlet.Repository.CWD;
+import static gitlet.Utils.*;
+
+/* The ignore rules in the .gitletignore file of the CWD, one glob per line. Lines starting with # are comments.
+ *  A rule without "/" matches the file or directory name at any depth, such as *.class.
+ *  A rule with "/" matches the path from the CWD, such as build/out.txt or /docs/**. A rule ending with "/"
+ *  only matches directories. Negated rules (starting with !) are not supported and are skipped.
+ *
+ *  All the rules are compiled once into a single trie of path segments: literal segments are hash map children,
+ *  segments with wildcards are precompiled patterns and "**" is a node that can stay put on any segment.
+ *  Matching runs this trie as an automaton. The working tree scanner keeps the set of nodes a directory reached,
+ *  and each entry in it costs one step from that set, instead of matching its whole path against every rule.
+ *  Ignored directories are never opened, so nothing under them is listed or hashed. */
+class IgnoreRules {
+    /* The name of the ignore file in the CWD. */
+    static final String IGNORE_FILE = ".gitletignore";
+
+    /* The rules are compiled once per command, so keep the loaded object here. */
+    private static IgnoreRules current;
+
+    /* The state that no path can leave, i.e. nothing under it can be ignored. */
+    private static final State NO_MATCH = new State(Collections.emptyList());
+
+    private final Node root = new Node();
+    private final State start;
+
+    private IgnoreRules(List<String> rules) {
+        for (String rule : rules) {
+            compile(rule);
+        }
+        start = closure(Collections.singletonList(root));
+    }
+
+    /* Return the ignore rules of the CWD. */
+    static IgnoreRules get() {
+        if (current == null) {
+            List<String> rules = new ArrayList<>();
+            File ignoreFile = join(CWD, IGNORE_FILE);
+            if (ignoreFile.isFile()) {
+                for (String line : readContentsAsString(ignoreFile).split("\n")) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#") && !line.startsWith("!")) {
+                        rules.add(line);
+                    }
+                }
+            }
+            current = new IgnoreRules(rules);
+        }
+        return current;
+    }
+
+    /* Return the state of the CWD itself. */
+    State start() {
+        return start;
+    }
+
+    /* Return the state of the entry called name, in the directory whose state is dirState. */
+    State step(State dirState, String name) {
+        if (dirState.nodes.isEmpty()) {
+            return NO_MATCH;
+        }
+        List<Node> next = new ArrayList<>();
+        for (Node node : dirState.nodes) {
+            if (node.isAnyDepth) {
+                next.add(node);
+            }
+            Node literal = node.literals.get(name);
+            if (literal != null) {
+                next.add(literal);
+            }
+            for (int i = 0; i < node.globs.size(); i++) {
+                if (node.globs.get(i).matcher(name).matches()) {
+                    next.add(node.globNodes.get(i));
+                }
+            }
+        }
+        return next.isEmpty() ? NO_MATCH : closure(next);
+    }
+
+    /* Return the state of the path, relative to the CWD and separated by "/". The empty path is the CWD. */
+    State stateOf(String path) {
+        State state = start;
+        if (!path.isEmpty()) {
+            for (String name : path.split("/")) {
+                state = step(state, name);
+            }
+        }
+        return state;
+    }
+
+    /* Return true if the entry that reached the state is ignored. */
+    boolean isIgnored(State state, boolean isDirectory) {
+        for (Node node : state.nodes) {
+            if (node.ignoresAll || (isDirectory && node.ignoresDirectory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Return true if the path, relative to the CWD and separated by "/", is ignored. */
+    boolean isIgnored(String path, boolean isDirectory) {
+        return isIgnored(stateOf(path), isDirectory);
+    }
+
+    /* Add one rule to the trie. */
+    private void compile(String rule) {
+        boolean directoryOnly = rule.endsWith("/");
+        if (directoryOnly) {
+            rule = rule.substring(0, rule.length() - 1);
+        }
+        boolean anchored = rule.contains("/");
+        if (rule.startsWith("/")) {
+            rule = rule.substring(1);
+        }
+
+        Node node = root;
+        if (!anchored) {
+            node = node.anyDepthChild();
+        }
+        for (String segment : rule.split("/")) {
+            if (segment.equals("**")) {
+                node = node.anyDepthChild();
+            } else if (isGlob(segment)) {
+                node = node.globChild(segment);
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        if (directoryOnly) {
+            node.ignoresDirectory = true;
+        } else {
+            node.ignoresAll = true;
+        }
+    }
+
+    /* Add the "**" nodes reachable without consuming a segment, since "**" also matches zero segments. */
+    private static State closure(List<Node> nodes) {
+        Set<Node> reached = new LinkedHashSet<>();
+        Deque<Node> stack = new ArrayDeque<>(nodes);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (reached.add(node) && node.anyDepth != null) {
+                stack.push(node.anyDepth);
+            }
+        }
+        return new State(new ArrayList<>(reached));
+    }
+
+    private static boolean isGlob(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('[') >= 0;
+    }
+
+    /* Translate one glob segment into a regular expression. Wildcards never match "/". */
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            int classEnd = c == '[' ? glob.indexOf(']', i + 1) : -1;
+            if (c == '*' || c == '?' || classEnd > 0) {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                if (c == '*') {
+                    regex.append("[^/]*");
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                } else {
+                    String members = glob.substring(i + 1, classEnd);
+                    if (members.startsWith("!")) {
+                        members = "^" + members.substring(1);
+                    }
+                    regex.append('[').append(members).append(']');
+                    i = classEnd;
+                }
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /* The set of trie nodes that a path has reached. */
+    static class State {
+        private final List<Node> nodes;
+
+        private State(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    /* A node of the trie, which stands for the path segments matched so far. */
+    private static class Node {
+        final Map<String, Node> literals = new HashMap<>();
+        final List<Pattern> globs = new ArrayList<>();
+        final List<Node> globNodes = new ArrayList<>();
+        final List<String> globSources = new ArrayList<>();
+        /* The "**" child. It is the same node for every rule that goes through "**" here. */
+        Node anyDepth;
+        /* True if this node is a "**" node, which consumes any segment and stays. */
+        boolean isAnyDepth;
+        /* True if a rule ends here and ignores files and directories. */
+        boolean ignoresAll;
+        /* True if a rule ends here with "/" and ignores directories only. */
+        boolean ignoresDirectory;
+
+        Node anyDepthChild() {
+            if (anyDepth == null) {
+                anyDepth = new Node();
+                anyDepth.isAnyDepth = true;
+            }
+            return anyDepth;
+        }
+
+        Node globChild(String glob) {
+            int index = globSources.indexOf(glob);
+            if (index >= 0) {
+                return globNodes.get(index);
+            }
+            Node child = new Node();
+            globSources.add(glob);
+            globs.add(globToPattern(glob));
+            globNodes.add(child);
+            return child;
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package gitlet;
 
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
 /* Understandings of git command:
  *  Whenever we change the head, the CWD's file will be converted into the commit pointed by head.
  *  reset commit :  change the head of the current branch to the given commit
@@ -9,6 +17,13 @@ package gitlet;
 public class Main {
 
     public static void main(String[] args) {
+        // gitlet --trace [command] or gitlet --trace=[file] [command] reports where the command spent its time
+        if (args.length > 0 && (args[0].equals("--trace") || args[0].startsWith("--trace="))) {
+            String option = args[0];
+            args = Arrays.copyOfRange(args, 1, args.length);
+            File jsonFile = option.startsWith("--trace=") ? new File(option.substring("--trace=".length())) : null;
+            Trace.enable(args.length == 0 ? "" : args[0], jsonFile);
+        }
         if (args.length == 0) {
             handleErrorAndExit("Please enter a command.");
         }
@@ -36,7 +51,11 @@ public class Main {
                 Repository.remove(args[1]);
                 break;
             case "log":
-                Repository.printLog();
+                if (args.length == 1) {
+                    Repository.printLog();
+                } else {
+                    printLogWithOptions(args);
+                }
                 break;
             case "global-log":
                 Repository.printGlobalLog();
@@ -85,12 +104,144 @@ public class Main {
                 }
                 Repository.merge(args[1]);
                 break;
+            case "cherry-pick":
+                if (args.length != 2) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Replay.cherryPick(args[1]);
+                break;
+            case "rebase":
+                if (args.length != 2) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Replay.rebase(args[1]);
+                break;
+            case "add-remote":
+                if (args.length != 3) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Remote.addRemote(args[1], args[2]);
+                break;
+            case "rm-remote":
+                if (args.length != 2) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Remote.removeRemote(args[1]);
+                break;
+            case "push":
+                if (args.length != 3) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Remote.push(args[1], args[2]);
+                break;
+            case "fetch":
+                if (args.length != 3) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Remote.fetch(args[1], args[2]);
+                break;
+            case "pull":
+                if (args.length != 3) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Remote.pull(args[1], args[2]);
+                break;
+            case "clone":
+                if (args.length != 2) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Remote.cloneRepository(args[1]);
+                break;
+            case "blame":
+                if (args.length != 2) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Blame.blame(args[1]);
+                break;
+            case "stash":
+                if (args.length == 1 || (args.length == 2 && args[1].equals("push"))) {
+                    Stash.push();
+                } else if (args.length == 2 && args[1].equals("pop")) {
+                    Stash.pop();
+                } else if (args.length == 2 && args[1].equals("list")) {
+                    Stash.list();
+                } else {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                break;
+            case "sparse-checkout":
+                if (args.length >= 3 && args[1].equals("set")) {// sparse-checkout set [pattern]...
+                    SparseCheckout.set(Arrays.asList(args).subList(2, args.length));
+                } else if (args.length == 2 && args[1].equals("list")) {
+                    SparseCheckout.list();
+                } else if (args.length == 2 && args[1].equals("disable")) {
+                    SparseCheckout.disable();
+                } else {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                break;
+            case "tag":
+                if (args.length == 1) {// tag
+                    Repository.listTags();
+                } else if (args.length == 3 && args[1].equals("-d")) {// tag -d [name]
+                    Repository.removeTag(args[2]);
+                } else if ((args.length == 4 || args.length == 5) && args[1].equals("-a")) {// tag -a [name] [message] [commit id]
+                    Repository.tag(args[2], args[3], args.length == 5 ? args[4] : null);
+                } else if (args.length == 2 || args.length == 3) {// tag [name] [commit id]
+                    Repository.tag(args[1], null, args.length == 3 ? args[2] : null);
+                } else {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                break;
+            case "pack-refs":
+                if (args.length != 1) {
+                    handleErrorAndExit("Incorrect operands.");
+                }
+                Repository.packRefs();
+                break;
             default:
                 handleErrorAndExit("No command with that name exists.");
                 break;
         }
     }
 
+    /* log [--since date] [--until date], where a date is yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss in local time.
+     *  --since takes in the whole day of a bare date from its start, and --until up to its end. */
+    private static void printLogWithOptions(String[] args) {
+        long since = Long.MIN_VALUE;
+        long until = Long.MAX_VALUE;
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                handleErrorAndExit("Incorrect operands.");
+            }
+            if (args[i].equals("--since")) {
+                since = parseDate(args[i + 1], false);
+            } else if (args[i].equals("--until")) {
+                until = parseDate(args[i + 1], true);
+            } else {
+                handleErrorAndExit("Incorrect operands.");
+            }
+        }
+        Repository.printLog(since, until);
+    }
+
+    /* Return the date in epoch millis. A bare date means its start, or its end if endOfDay is true. */
+    private static long parseDate(String date, boolean endOfDay) {
+        try {
+            LocalDateTime time;
+            if (date.contains("T")) {
+                time = LocalDateTime.parse(date);
+            } else {
+                LocalDate day = LocalDate.parse(date);
+                time = endOfDay ? day.atTime(LocalTime.MAX) : day.atStartOfDay();
+            }
+            return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            handleErrorAndExit("Incorrect operands.");
+            return 0;
+        }
+    }
+
     /* A helper method to handleError. */
     private static void handleErrorAndExit(String errorMessage) {
         System.out.println(errorMessage);
@@ -0,0 +1,106 @@
+package gitlet;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Iterator;
+
+import static gitlet.Utils.*;
+
+/* A pack bundles many objects of an objects directory into one single stream.
+ *  So a transfer between two repositories is one stream from the sender's objects into the receiver's,
+ *  instead of copying the object files one by one.
+ *  The layout is: MAGIC, the number of objects, then for each object its UID, byte length and raw bytes.
+ *  The raw bytes are exactly the content of the object file, so nothing is deserialized on either side. */
+class Pack {
+    /* "GPK1" in ASCII, used to reject a stream that is not a pack. */
+    private static final int MAGIC = 0x47504b31;
+
+    /* Return the pack of the objects named by UIDs in objectsDir as a stream, in the iteration order of UIDs.
+     *  Each object file is only opened once the stream reaches it, so the pack is never written out or held whole. */
+    static InputStream open(File objectsDir, Collection<String> UIDs) {
+        Iterator<String> remaining = UIDs.iterator();
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            private boolean headerDone;
+
+            @Override
+            public boolean hasMoreElements() {
+                return !headerDone || remaining.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (!headerDone) {
+                    headerDone = true;
+                    return header(out -> {
+                        out.writeInt(MAGIC);
+                        out.writeInt(UIDs.size());
+                    });
+                }
+                String UID = remaining.next();
+                File objectFile = join(objectsDir, UID);
+                long length = objectFile.length();
+                if (length > Integer.MAX_VALUE) {
+                    throw error("Object %s is too big to pack.", UID);
+                }
+                try {
+                    return new SequenceInputStream(header(out -> {
+                        out.writeUTF(UID);
+                        out.writeInt((int) length);
+                    }), Files.newInputStream(objectFile.toPath()));
+                } catch (IOException excp) {
+                    throw new IllegalArgumentException(excp.getMessage());
+                }
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+
+    private interface HeaderWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static InputStream header(HeaderWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    /* Read the pack and write every object it contains into objectsDir, in the order they were packed.
+     *  Objects that already exist in objectsDir are skipped. Return the number of objects written. */
+    static int unpack(InputStream pack, File objectsDir) {
+        int written = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(pack))) {
+            if (in.readInt() != MAGIC) {
+                throw error("That is not a gitlet pack.");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String UID = in.readUTF();
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                File objectFile = join(objectsDir, UID);
+                if (!objectFile.exists()) {
+                    writeContents(objectFile, (Object) content);
+                    written++;
+                }
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        return written;
+    }
+}
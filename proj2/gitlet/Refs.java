@@ -0,0 +1,234 @@
+package gitlet;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static gitlet.Repository.*;
+import static gitlet.Utils.*;
+
+/* The branches and tags of a repository, i.e. names that point at an object UID.
+ *  A ref is either loose, a file named after it in .gitlet/refs.heads/ or .gitlet/refs.tags/ that holds the UID,
+ *  or packed, a line "UID refs/heads/name" or "UID refs/tags/name" in the .gitlet/packed-refs file.
+ *  The packed-refs lines are sorted by ref name, so a lookup is a binary search over the bytes of one file,
+ *  and listing the refs reads that one file. A loose ref overrides the packed one of the same name,
+ *  so updating a ref only ever writes a small loose file. pack-refs folds the loose refs back into packed-refs. */
+class Refs {
+    /* The prefix of branch names in packed-refs. */
+    private static final String HEADS = "refs/heads/";
+    /* The prefix of tag names in packed-refs. */
+    private static final String TAGS = "refs/tags/";
+
+    /* The refs of the local repository. */
+    private static Refs local;
+
+    private final File headsDir;
+    private final File tagsDir;
+    private final File packedFile;
+    /* The content of packed-refs, read once when it is first needed. */
+    private byte[] packed;
+
+    /* The refs of the repository whose .gitlet directory is gitletDir. */
+    Refs(File gitletDir) {
+        headsDir = join(gitletDir, REFS_DIR.getName());
+        tagsDir = join(gitletDir, TAGS_DIR.getName());
+        packedFile = join(gitletDir, PACKED_REFS.getName());
+    }
+
+    /* Return the refs of the repository in the CWD. */
+    static Refs local() {
+        if (local == null) {
+            local = new Refs(GITLET_DIR);
+        }
+        return local;
+    }
+
+    /* Return the commit UID the branch points at, or null if there is no such branch. */
+    String readBranch(String branch) {
+        return read(headsDir, HEADS, branch);
+    }
+
+    /* Return the UID the tag points at, a commit or a Tag object, or null if there is no such tag. */
+    String readTag(String tag) {
+        return read(tagsDir, TAGS, tag);
+    }
+
+    /* Point the branch at the commit UID. */
+    void writeBranch(String branch, String UID) {
+        write(headsDir, branch, UID);
+    }
+
+    /* Point the tag at the UID. */
+    void writeTag(String tag, String UID) {
+        write(tagsDir, tag, UID);
+    }
+
+    /* Delete the branch, loose or packed. */
+    void deleteBranch(String branch) {
+        delete(headsDir, HEADS, branch);
+    }
+
+    /* Delete the tag, loose or packed. */
+    void deleteTag(String tag) {
+        delete(tagsDir, TAGS, tag);
+    }
+
+    /* Return the names of all branches in lexicographic order. */
+    List<String> listBranches() {
+        return list(headsDir, HEADS);
+    }
+
+    /* Return the names of all tags in lexicographic order. */
+    List<String> listTags() {
+        return list(tagsDir, TAGS);
+    }
+
+    /* Move every loose branch and tag into packed-refs and delete the loose files. */
+    void pack() {
+        TreeMap<String, String> refs = readAllPacked();
+        List<File> looseFiles = new ArrayList<>();
+        collectLoose(headsDir, HEADS, refs, looseFiles);
+        collectLoose(tagsDir, TAGS, refs, looseFiles);
+        writePacked(refs);
+        for (File file : looseFiles) {
+            file.delete();
+        }
+    }
+
+
+    private String read(File dir, String prefix, String name) {
+        File looseFile = join(dir, name);
+        if (looseFile.isFile()) {
+            return readContentsAsString(looseFile);
+        }
+        return lookupPacked(prefix + name);
+    }
+
+    private void write(File dir, String name, String UID) {
+        File looseFile = join(dir, name);
+        looseFile.getParentFile().mkdirs();
+        writeContents(looseFile, UID);
+    }
+
+    private void delete(File dir, String prefix, String name) {
+        join(dir, name).delete();
+        TreeMap<String, String> refs = readAllPacked();
+        if (refs.remove(prefix + name) != null) {
+            writePacked(refs);
+        }
+    }
+
+    /* The loose refs are the plain files anywhere under dir, the packed ones are the contiguous lines with prefix. */
+    private List<String> list(File dir, String prefix) {
+        TreeSet<String> names = new TreeSet<>();
+        collectLooseNames(dir, "", names);
+        for (String refName : readAllPacked().subMap(prefix, prefix + Character.MAX_VALUE).keySet()) {
+            names.add(refName.substring(prefix.length()));
+        }
+        return new ArrayList<>(names);
+    }
+
+    private void collectLoose(File dir, String prefix, Map<String, String> refs, List<File> looseFiles) {
+        List<String> looseNames = new ArrayList<>();
+        collectLooseNames(dir, "", looseNames);
+        for (String name : looseNames) {
+            File looseFile = join(dir, name);
+            refs.put(prefix + name, readContentsAsString(looseFile));
+            looseFiles.add(looseFile);
+        }
+    }
+
+    /* Add the names of the loose refs under dir to names. A ref with a "/" in its name, like the tracking
+     *  branch origin/master that fetch writes, is a file in a subdirectory, so the directories are walked
+     *  and the name is the path relative to the top ref directory, relative being the path of dir. */
+    private static void collectLooseNames(File dir, String relative, Collection<String> names) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = relative + file.getName();
+            if (file.isDirectory()) {
+                collectLooseNames(file, name + "/", names);
+            } else if (file.isFile()) {
+                names.add(name);
+            }
+        }
+    }
+
+    /* Return the content of packed-refs, or an empty array if there is none. */
+    private byte[] packed() {
+        if (packed == null) {
+            packed = packedFile.isFile() ? readContents(packedFile) : new byte[0];
+        }
+        return packed;
+    }
+
+    /* Binary search packed-refs for the ref name and return its UID, or null.
+     *  Every line is "UID refName\n" and the UID has a fixed length, so the name starts at UID_LENGTH + 1.
+     *  lo and hi are always line starts. From any offset in between, back up to the start of its line. */
+    private String lookupPacked(String refName) {
+        byte[] data = packed();
+        byte[] key = refName.getBytes(StandardCharsets.UTF_8);
+        int lo = 0;
+        int hi = data.length;
+        while (lo < hi) {
+            int start = (lo + hi) >>> 1;
+            while (start > lo && data[start - 1] != '\n') {
+                start--;
+            }
+            int end = start;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            int cmp = compare(data, start + UID_LENGTH + 1, end, key);
+            if (cmp == 0) {
+                return new String(data, start, UID_LENGTH, StandardCharsets.UTF_8);
+            } else if (cmp < 0) {
+                lo = end + 1;
+            } else {
+                hi = start;
+            }
+        }
+        return null;
+    }
+
+    /* Compare data[from, to) with key as unsigned bytes, which is the order packed-refs is written in. */
+    private static int compare(byte[] data, int from, int to, byte[] key) {
+        int length = Math.min(to - from, key.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(data[from + i] & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(to - from, key.length);
+    }
+
+    /* Return every packed ref, ref name -> UID. */
+    private TreeMap<String, String> readAllPacked() {
+        TreeMap<String, String> refs = new TreeMap<>();
+        String content = new String(packed(), StandardCharsets.UTF_8);
+        for (String line : content.split("\n")) {
+            if (line.length() > UID_LENGTH) {
+                refs.put(line.substring(UID_LENGTH + 1), line.substring(0, UID_LENGTH));
+            }
+        }
+        return refs;
+    }
+
+    /* Write the refs to packed-refs, sorted by the UTF-8 bytes of their names. */
+    private void writePacked(Map<String, String> refs) {
+        List<String> refNames = new ArrayList<>(refs.keySet());
+        refNames.sort((a, b) -> {
+            byte[] bytesA = a.getBytes(StandardCharsets.UTF_8);
+            return compare(bytesA, 0, bytesA.length, b.getBytes(StandardCharsets.UTF_8));
+        });
+        StringBuilder content = new StringBuilder();
+        for (String refName : refNames) {
+            content.append(refs.get(refName)).append(' ').append(refName).append('\n');
+        }
+        writeContents(packedFile, content.toString());
+        packed = content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,248 @@
+package gitlet;
+
+import java.io.File;
+import java.util.*;
+
+import static gitlet.Repository.*;
+import static gitlet.Utils.*;
+
+/* The remote commands of gitlet: add-remote, rm-remote, fetch, push, pull and clone.
+ *  A remote is just another .gitlet directory on the local file system. Each remote is a file named after it
+ *  in the .gitlet/remotes/ directory, and in the file is the path of the remote .gitlet directory.
+ *  Before anything moves, the two sides negotiate from the ref tips which commits the receiver already has,
+ *  so only the missing commits and blobs are bundled into a single pack and streamed over. */
+public class Remote {
+    /* The default remote name that clone records. */
+    private static final String ORIGIN = "origin";
+
+    /* Save the given remote gitlet directory under the given name. */
+    public static void addRemote(String remoteName, String remotePath) {
+        File remoteFile = join(REMOTES_DIR, remoteName);
+        if (remoteFile.exists()) {
+            handleErrorAndExit("A remote with that name already exists.");
+        }
+        REMOTES_DIR.mkdirs();
+        writeContents(remoteFile, remotePath);
+    }
+
+    /* Remove the remote with the given name. The remote repository itself is untouched. */
+    public static void removeRemote(String remoteName) {
+        File remoteFile = join(REMOTES_DIR, remoteName);
+        if (!remoteFile.exists()) {
+            handleErrorAndExit("A remote with that name does not exist.");
+        }
+        remoteFile.delete();
+    }
+
+    /* Append the current branch's commits to the end of the given branch at the given remote.
+     *  It only works if the remote branch's head is in the history of the current local head.
+     *  If the remote branch doesn't exist, it is created. */
+    public static void push(String remoteName, String remoteBranch) {
+        File remoteGitlet = getRemoteDir(remoteName);
+        Commit head = getCurrentCommit();
+        Refs remoteRefs = new Refs(remoteGitlet);
+
+        String remoteHeadUID = remoteRefs.readBranch(remoteBranch);
+        if (remoteHeadUID != null) {
+            if (!isAncestor(remoteHeadUID, head.getUID())) {
+                handleErrorAndExit("Please pull down remote changes before pushing.");
+            }
+        }
+        transfer(GITLET_DIR, remoteGitlet, List.of(head.getUID()));
+        remoteRefs.writeBranch(remoteBranch, head.getUID());
+    }
+
+    /* Bring down the commits of the given remote branch into a local branch named [remote name]/[remote branch]. */
+    public static void fetch(String remoteName, String remoteBranch) {
+        File remoteGitlet = getRemoteDir(remoteName);
+        String remoteHeadUID = new Refs(remoteGitlet).readBranch(remoteBranch);
+        if (remoteHeadUID == null) {
+            handleErrorAndExit("That remote does not have that branch.");
+        }
+
+        transfer(remoteGitlet, GITLET_DIR, List.of(remoteHeadUID));
+
+        Refs.local().writeBranch(remoteName + "/" + remoteBranch, remoteHeadUID);
+    }
+
+    /* Fetch the remote branch and then merge it into the current branch. */
+    public static void pull(String remoteName, String remoteBranch) {
+        fetch(remoteName, remoteBranch);
+        merge(remoteName + "/" + remoteBranch);
+    }
+
+    /* Create a new repository in the CWD which has every branch of the given remote repository.
+     *  The remote is recorded as "origin" and the working tree is checked out at the remote's HEAD branch. */
+    public static void cloneRepository(String remotePath) {
+        if (GITLET_DIR.exists()) {
+            handleErrorAndExit("A Gitlet version-control system already exists in the current directory.");
+        }
+        File remoteGitlet = resolve(remotePath);
+        if (!remoteGitlet.isDirectory()) {
+            handleErrorAndExit("Remote directory not found.");
+        }
+
+        // Read all the remote branches, every head is a tip we want
+        Refs remoteRefs = new Refs(remoteGitlet);
+        Map<String, String> branchTips = new TreeMap<>();
+        for (String branch : remoteRefs.listBranches()) {
+            branchTips.put(branch, remoteRefs.readBranch(branch));
+        }
+
+        GITLET_DIR.mkdirs();
+        OBJECTS_DIR.mkdirs();
+        REFS_DIR.mkdirs();
+        TAGS_DIR.mkdirs();
+        REMOTES_DIR.mkdirs();
+        transfer(remoteGitlet, GITLET_DIR, branchTips.values());
+
+        for (Map.Entry<String, String> entry : branchTips.entrySet()) {
+            Refs.local().writeBranch(entry.getKey(), entry.getValue());
+        }
+        writeContents(HEAD, readContentsAsString(join(remoteGitlet, HEAD.getName())));
+        writeContents(join(REMOTES_DIR, ORIGIN), remotePath);
+        new StagingArea().save();
+
+        // The CWD has no current commit yet, so simply write out every file of the head commit
+        Commit head = getCurrentCommit();
+        for (String fileName : head.fileMap.keySet()) {
+            writeWorkingFile(fileName, head.getFileContent(fileName));
+        }
+    }
+
+
+    /* Copy every commit reachable from tips, and the blobs they refer to, from one .gitlet directory to another.
+     *  Negotiation: walk back from the tips and stop at any commit the receiver already has. Objects are never
+     *  deleted, so if the receiver has a commit it also has all its ancestors and their blobs.
+     *  The blobs of those boundary commits are known to be there as well, only the rest need an existence check. */
+    private static void transfer(File fromGitlet, File toGitlet, Collection<String> tips) {
+        File fromObjects = join(fromGitlet, OBJECTS_DIR.getName());
+        File toObjects = join(toGitlet, OBJECTS_DIR.getName());
+
+        Map<String, Commit> missingCommits = new HashMap<>();
+        Set<String> wantedBlobs = new HashSet<>();
+        Set<String> boundaryBlobs = new HashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>(tips);
+
+        while (!stack.isEmpty()) {
+            String UID = stack.pop();
+            if (!visited.add(UID)) {
+                continue;
+            }
+            Commit commit = readObject(join(fromObjects, UID), Commit.class);
+            if (join(toObjects, UID).exists()) {
+                boundaryBlobs.addAll(commit.fileMap.values());
+                continue;
+            }
+            missingCommits.put(UID, commit);
+            wantedBlobs.addAll(commit.fileMap.values());
+            if (commit.parentUID != null) {
+                stack.push(commit.parentUID);
+            }
+            if (commit.secondParentUID != null) {
+                stack.push(commit.secondParentUID);
+            }
+        }
+        if (missingCommits.isEmpty()) {
+            return;
+        }
+
+        /* Blobs go first and commits go ancestors first. So even if the unpack is interrupted,
+         *  any commit that reaches the receiver already has its ancestors and blobs, which is what negotiation relies on. */
+        List<String> objects = new ArrayList<>();
+        wantedBlobs.removeAll(boundaryBlobs);
+        for (String blobUID : wantedBlobs) {
+            if (!join(toObjects, blobUID).exists()) {
+                objects.add(blobUID);
+            }
+        }
+        objects.addAll(ancestorsFirst(missingCommits));
+
+        Pack.unpack(Pack.open(fromObjects, objects), toObjects);
+    }
+
+    /* Return the UIDs of the given commits ordered so that every commit comes after its parents.
+     *  It is an iterative post-order walk, since the history can be far deeper than the call stack. */
+    private static List<String> ancestorsFirst(Map<String, Commit> commits) {
+        List<String> order = new ArrayList<>();
+        Set<String> emitted = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>(commits.keySet());
+        while (!stack.isEmpty()) {
+            String UID = stack.peek();
+            if (emitted.contains(UID)) {
+                stack.pop();
+                continue;
+            }
+            Commit commit = commits.get(UID);
+            boolean parentsEmitted = true;
+            for (String parentUID : new String[]{commit.parentUID, commit.secondParentUID}) {
+                if (parentUID != null && commits.containsKey(parentUID) && !emitted.contains(parentUID)) {
+                    stack.push(parentUID);
+                    parentsEmitted = false;
+                }
+            }
+            if (parentsEmitted) {
+                stack.pop();
+                emitted.add(UID);
+                order.add(UID);
+            }
+        }
+        return order;
+    }
+
+    /* Return true if the commit ancestorUID is in the history of the commit descendantUID in the local repository. */
+    private static boolean isAncestor(String ancestorUID, String descendantUID) {
+        if (!join(OBJECTS_DIR, ancestorUID).exists()) {
+            return false;
+        }
+        Set<String> visited = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(descendantUID);
+        while (!stack.isEmpty()) {
+            String UID = stack.pop();
+            if (UID.equals(ancestorUID)) {
+                return true;
+            }
+            if (!visited.add(UID)) {
+                continue;
+            }
+            Commit commit = readObject(join(OBJECTS_DIR, UID), Commit.class);
+            if (commit.parentUID != null) {
+                stack.push(commit.parentUID);
+            }
+            if (commit.secondParentUID != null) {
+                stack.push(commit.secondParentUID);
+            }
+        }
+        return false;
+    }
+
+    /* Given the remote name, return its .gitlet directory. Exit if the remote or the directory doesn't exist. */
+    private static File getRemoteDir(String remoteName) {
+        File remoteFile = join(REMOTES_DIR, remoteName);
+        if (!remoteFile.exists()) {
+            handleErrorAndExit("A remote with that name does not exist.");
+        }
+        File remoteGitlet = resolve(readContentsAsString(remoteFile));
+        if (!remoteGitlet.isDirectory()) {
+            handleErrorAndExit("Remote directory not found.");
+        }
+        return remoteGitlet;
+    }
+
+    /* The remote path is written with "/" and may be relative to the CWD, such as ../D1/.gitlet. */
+    private static File resolve(String remotePath) {
+        File remoteGitlet = new File(remotePath.replace('/', File.separatorChar));
+        if (!remoteGitlet.isAbsolute()) {
+            remoteGitlet = join(CWD, remoteGitlet.getPath());
+        }
+        return remoteGitlet;
+    }
+
+    /* A helper method to handleError. */
+    private static void handleErrorAndExit(String errorMessage) {
+        System.out.println(errorMessage);
+        System.exit(0);
+    }
+}
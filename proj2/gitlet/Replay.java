@@ -0,0 +1,139 @@
+package gitlet;
+
+import java.util.*;
+
+import static gitlet.Repository.*;
+import static gitlet.Utils.*;
+
+/* The cherry-pick and rebase commands, which replay commits on top of the current commit.
+ *  Every replayed commit is a three-way merge of file trees done in memory against blob IDs (see TreeMerge),
+ *  so nothing is written to the CWD while replaying. The first conflict stops everything and nothing is changed.
+ *  Otherwise the CWD goes from the old head to the final tree in one single checkout at the end. */
+public class Replay {
+
+    /* Apply the changes the given commit made to its first parent as a new commit on the current branch. */
+    public static void cherryPick(String prefix) {
+        Commit commit = Commit.getCommit(prefix);
+        if (commit == null) {
+            handleErrorAndExit("No commit with that id exists.");
+        }
+        if (!getStagingArea().isEmpty()) {
+            handleErrorAndExit("You have uncommitted changes.");
+        }
+
+        Commit head = getCurrentCommit();
+        Commit parent = commit.parentCommit();
+        Map<String, String> base = parent == null ? new HashMap<>() : parent.fileMap;
+        TreeMerge result = TreeMerge.merge(base, head.fileMap, commit.fileMap);
+        if (result.hasConflict()) {
+            handleErrorAndExit("Encountered a merge conflict in " + result.conflictFile + "; nothing was changed.");
+        }
+        if (result.merged.equals(head.fileMap)) {
+            handleErrorAndExit("No changes added to the commit.");
+        }
+        checkCanCheckoutTree(head, result.merged);
+
+        Commit newCommit = new Commit(commit.message, head.getUID(), null, result.merged);
+        newCommit.save();
+        checkoutTree(head.fileMap, result.merged);
+        changeHeadTo(newCommit);
+    }
+
+    /* Replay the commits of the current branch that are not in the given branch on top of the given branch's head.
+     *  Only the first-parent history is replayed and merge commits are dropped, like git.
+     *  Commits whose changes are already in the given branch become empty and are dropped as well. */
+    public static void rebase(String branch) {
+        Commit upstream = getHeadCommit(branch);
+        if (upstream == null) {
+            handleErrorAndExit("A branch with that name does not exist.");
+        }
+        if (branch.equals(getCurrentBranch())) {
+            handleErrorAndExit("Cannot rebase a branch onto itself.");
+        }
+        if (!getStagingArea().isEmpty()) {
+            handleErrorAndExit("You have uncommitted changes.");
+        }
+
+        Commit head = getCurrentCommit();
+        Set<String> upstreamHistory = getHistory(upstream.getUID());
+        if (upstreamHistory.contains(head.getUID())) {
+            checkCanCheckoutTree(head, upstream.fileMap);
+            checkoutTree(head.fileMap, upstream.fileMap);
+            changeHeadTo(upstream);
+            System.out.println("Current branch fast-forwarded.");
+            return;
+        }
+
+        // Walk back the first parents until the history of the given branch
+        List<Commit> toReplay = new ArrayList<>();
+        Commit commit = head;
+        while (commit != null && !upstreamHistory.contains(commit.getUID())) {
+            toReplay.add(commit);
+            commit = commit.parentCommit();
+        }
+        if (commit != null && commit.equals(upstream)) {
+            System.out.println("Current branch is up to date.");
+            return;
+        }
+        Collections.reverse(toReplay);
+
+        // The replayed commits are only written once every one of them merged and the CWD can be checked out
+        List<Commit> replayed = new ArrayList<>();
+        Map<String, String> tree = upstream.fileMap;
+        Commit newHead = upstream;
+        Map<String, String> base = commit == null ? new HashMap<>() : commit.fileMap;
+        for (Commit original : toReplay) {
+            Map<String, String> originalBase = base;
+            base = original.fileMap;
+            if (original.secondParentUID != null) {
+                continue;
+            }
+            TreeMerge result = TreeMerge.merge(originalBase, tree, original.fileMap);
+            if (result.hasConflict()) {
+                handleErrorAndExit("Encountered a merge conflict in " + result.conflictFile + " while replaying "
+                        + original.getUID().substring(0, 7) + "; nothing was changed.");
+            }
+            if (result.merged.equals(tree)) {
+                continue;
+            }
+            newHead = new Commit(original.message, newHead.getUID(), null, result.merged);
+            newHead.computeUID();
+            replayed.add(newHead);
+            tree = result.merged;
+        }
+
+        checkCanCheckoutTree(head, tree);
+        for (Commit newCommit : replayed) {
+            newCommit.write();
+        }
+        checkoutTree(head.fileMap, tree);
+        changeHeadTo(newHead);
+    }
+
+    /* Return the UIDs of the commit and all its ancestors. */
+    private static Set<String> getHistory(String commitUID) {
+        Set<String> history = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(commitUID);
+        while (!stack.isEmpty()) {
+            String UID = stack.pop();
+            if (!history.add(UID)) {
+                continue;
+            }
+            Commit commit = readObject(join(OBJECTS_DIR, UID), Commit.class);
+            if (commit.parentUID != null) {
+                stack.push(commit.parentUID);
+            }
+            if (commit.secondParentUID != null) {
+                stack.push(commit.secondParentUID);
+            }
+        }
+        return history;
+    }
+
+    /* A helper method to handleError. */
+    private static void handleErrorAndExit(String errorMessage) {
+        System.out.println(errorMessage);
+        System.exit(0);
+    }
+}
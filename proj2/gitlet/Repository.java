@@ -2,7 +2,8 @@ package gitlet;
 
 import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
 import static gitlet.Utils.*;
@@ -20,8 +21,17 @@ public class Repository {
     /* The .gitlet/refs/heads/ directory has many files named after branches' name such as master.
     And in the file is the branch's head commit UID. */
     public static final File REFS_DIR = join(GITLET_DIR, "refs.heads");
+    /* The .gitlet/refs.tags/ directory has many files named after tags' name.
+    And in the file is the UID of the tagged commit, or of the tag object for an annotated tag. */
+    public static final File TAGS_DIR = join(GITLET_DIR, "refs.tags");
+    /* The packed-refs file holds the branches and tags that have no file of their own, sorted by name.
+    See Refs. */
+    public static final File PACKED_REFS = join(GITLET_DIR, "packed-refs");
     /* The HEAD file stores the current branch's relative path, such as "refs/heads/master". */
     public static final File HEAD = join(GITLET_DIR, "HEAD");
+    /* The .gitlet/remotes/ directory has many files named after remotes' name such as origin.
+    And in the file is the path of the remote's .gitlet directory. */
+    public static final File REMOTES_DIR = join(GITLET_DIR, "remotes");
 
     /* Create a gitlet repository. */
     public static void createRepository() {
@@ -34,15 +44,15 @@ public class Repository {
         GITLET_DIR.mkdirs();
         OBJECTS_DIR.mkdirs();
         REFS_DIR.mkdirs();
+        TAGS_DIR.mkdirs();
+        REMOTES_DIR.mkdirs();
         tryCreate(HEAD);
 
         Commit initialCommit = new Commit("initial commit", null, null, new HashMap<>());
         initialCommit.save();
 
         // Create the master branch
-        File master = join(REFS_DIR, "master");
-        tryCreate(master);
-        writeContents(master, initialCommit.getUID());
+        Refs.local().writeBranch("master", initialCommit.getUID());
 
         // .gitlet/HEAD file store the current branch. It starts with master
         writeContents(HEAD, "master");
@@ -55,29 +65,42 @@ public class Repository {
 
     /* Given the fileName(String), add it to the staging area.
     Make its blob(store), in the .gitlet/staging/add(ADD_DIR) directory
-    create a file named fileName and its content is the blob SHA-1 code. */
+    create a file named fileName and its content is the blob SHA-1 code.
+    If the fileName is a directory, add every file under it that is not ignored. */
     public static void add(String fileName) {
+        fileName = toWorkingPath(fileName);
         File file = join(CWD, fileName);
         if (!file.exists()) {
             System.out.println("File does not exist.");
             System.exit(0);
         }
-        Blob blob = new Blob(file);
+        StagingArea stagingArea = getStagingArea();
+        Commit currentCommit = getCurrentCommit();
+        if (file.isDirectory()) {
+            for (String filePath : WorkingTree.scan(fileName)) {
+                stageFile(filePath, stagingArea, currentCommit);
+            }
+        } else {
+            stageFile(fileName, stagingArea, currentCommit);
+        }
+        stagingArea.save();
+    }
+
+    /* Stage one file of the working tree in the given staging area, without saving it. */
+    private static void stageFile(String fileName, StagingArea stagingArea, Commit currentCommit) {
+        Blob blob = new Blob(join(CWD, fileName));
         blob.save();
         /* If the current working version of the file is identical to the version in the current commit,
          * do not stage it to be added, and remove it from the staging area if it is already there. */
-        StagingArea stagingArea = getStagingArea();
-        if (getCurrentCommit().track(blob)) {
+        if (blob.getUID().equals(currentCommit.getFileUID(fileName))) {
             stagingArea.getAddedFiles().remove(fileName);
             stagingArea.getRemovedFiles().remove(fileName);
-            stagingArea.save();
             return;
         }
 
         /* If you stage a file, then it should be removed from the removedFiles if it exists. */
         stagingArea.addFile(fileName, blob.getUID());
         stagingArea.getRemovedFiles().remove(fileName);
-        stagingArea.save();
     }
 
     /* Make a current commit and save. */
@@ -118,6 +141,7 @@ public class Repository {
      *   just unstage it by removing the file in stagingArea.addedFiles.
      * */
     public static void remove(String fileName) {
+        fileName = toWorkingPath(fileName);
         StagingArea stagingArea = getStagingArea();
         Commit curCommit = getCurrentCommit();
         boolean isStaged = stagingArea.hasAddedFile(fileName);
@@ -134,7 +158,7 @@ public class Repository {
 
         if (isTracked) {
             stagingArea.removeFile(fileName);
-            restrictedDelete(fileName);
+            deleteWorkingFile(fileName);
         }
         stagingArea.save();
     }
@@ -142,11 +166,22 @@ public class Repository {
 
     /* Print out all the commit information from head to initial commit. */
     public static void printLog() {
+        printLog(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /* Print out the commits from head to initial commit whose timestamp is in [since, until], in epoch millis.
+     *  Like git, assume the history is in time order: once a commit is older than since, stop walking. */
+    public static void printLog(long since, long until) {
+        StringBuilder out = new StringBuilder();
         Commit curCommit = getCurrentCommit();
-        while (curCommit != null) {
-            printCommit(curCommit);
+        while (curCommit != null && curCommit.timestamp >= since) {
+            if (curCommit.timestamp <= until) {
+                appendCommit(out, curCommit);
+                flushIfFull(out);
+            }
             curCommit = curCommit.parentCommit();
         }
+        System.out.print(out);
     }
 
 
@@ -156,15 +191,18 @@ public class Repository {
         if (files == null) {
             return;
         }
+        StringBuilder out = new StringBuilder();
         for (String fileName : files) {
             File commitFile = join(OBJECTS_DIR, fileName);
             try {
                 Commit commit = readObject(commitFile, Commit.class);
-                printCommit(commit);
+                appendCommit(out, commit);
+                flushIfFull(out);
             } catch (IllegalArgumentException e) {
                 /* Deal with the file that is blob or something else. */
             }
         }
+        System.out.print(out);
     }
 
 
@@ -203,7 +241,7 @@ public class Repository {
         System.out.print("=== Branches ===\n*");
         String currentBranch = getCurrentBranch();
         System.out.println(currentBranch);
-        printLexically(plainFilenamesIn(REFS_DIR), currentBranch);
+        printBranches(Refs.local().listBranches(), currentBranch);
 
         System.out.println("=== Staged Files ===");
         printLexically(area.getAddedFiles());
@@ -220,22 +258,17 @@ public class Repository {
         System.out.println();
     }
 
-    /* Print untracked files. */
+    /* Print untracked files. The working tree scan skips the files outside the sparse-checkout cone,
+     *  and it is already in lexicographic order. */
     private static void printUntracked() {
         StagingArea area = getStagingArea();
         Commit currentCommit = getCurrentCommit();
-        Set<String> fileSet = new TreeSet<>();
 
-        for (String fileName : Objects.requireNonNull(plainFilenamesIn(CWD))) {
+        for (String fileName : WorkingTree.scan()) {
             if (!area.hasAddedFile(fileName) && !currentCommit.track(fileName)) {
-                fileSet.add(fileName);
+                System.out.println(fileName);
             }
         }
-
-        /* Print out the result. */
-        for (String file : fileSet) {
-            System.out.println(file);
-        }
     }
 
 
@@ -271,14 +304,19 @@ public class Repository {
     }
 
 
-    /* Return all the files exist in staging area, the current commit or the CWD. */
+    /* Return all the files exist in staging area, the current commit or the CWD.
+     *  Only the files in the sparse-checkout cone are returned, the others are never materialized in the CWD. */
     private static Set<String> getAllFilesFromCWD() {
         Set<String> allFiles = new HashSet<>();
         Commit currentCommit = getCurrentCommit();
         StagingArea area = getStagingArea();
         allFiles.addAll(currentCommit.fileMap.keySet());
         allFiles.addAll(area.getStagedFiles().keySet());
-        allFiles.addAll(Objects.requireNonNull(plainFilenamesIn(CWD)));
+        allFiles.addAll(WorkingTree.scan());
+        SparseCheckout sparse = SparseCheckout.get();
+        if (sparse.isEnabled()) {
+            allFiles.removeIf(fileName -> !sparse.includes(fileName));
+        }
         return allFiles;
     }
 
@@ -288,11 +326,11 @@ public class Repository {
      *  parameters sequence will be [0]fileName, [1]commitUID prefix. */
     public static void checkoutFile(String... parameters) {
         // Initialize the commit using commitUID prefix if it exists. Otherwise, use the current commit
-        String fileName = parameters[0];
+        String fileName = toWorkingPath(parameters[0]);
         Commit commit;
         if (parameters.length == 2) {
             String prefix = parameters[1];
-            commit = Commit.getCommit(prefix);
+            commit = resolveCommit(prefix);
         } else {
             commit = getCurrentCommit();
         }
@@ -306,9 +344,7 @@ public class Repository {
         }
 
         // Get the file content and put it in the CWD. If it already exists, override it
-        byte[] fileContent = commit.getFileContent(fileName);
-        File fileInCWD = join(CWD, fileName);
-        writeContents(fileInCWD, (Object) fileContent);
+        writeWorkingFile(fileName, commit.getFileContent(fileName));
     }
 
 
@@ -322,7 +358,7 @@ public class Repository {
             handleErrorAndExit("No need to checkout the current branch.");
         }
         /* Get the new branch's head commit and deal with the third error. */
-        Commit targetCommit = Commit.getCommit(readContentsAsString(join(REFS_DIR, branch)));
+        Commit targetCommit = getHeadCommit(branch);
         if (hasUntrackedFileConflict(targetCommit)) {
             handleErrorAndExit("There is an untracked file in the way; delete it, or add and commit it first.");
         }
@@ -336,23 +372,66 @@ public class Repository {
      *  1. Get the new branch's head commitUID. It is in the REF_DIR/branch file.
      *  2. For each file in the commit's fileMap, writeContent(CWDFile, fileContent).
      *  3. For each file in current commit's fileMap, if it doesn't exist in commit's fileMap,
-     *     Remove it from the CWD using restrictedDelete. */
+     *     Remove it from the CWD using restrictedDelete.
+     *  Files outside the sparse-checkout cone are neither written nor deleted, they are not in the CWD. */
     public static void checkoutCommit(Commit targetCommit) {
+        SparseCheckout sparse = SparseCheckout.get();
         for (String fileName : targetCommit.fileMap.keySet()) {
-            File newFile = join(CWD, fileName);
-            writeContents(newFile, (Object) targetCommit.getFileContent(fileName));
+            if (!sparse.includes(fileName)) {
+                continue;
+            }
+            writeWorkingFile(fileName, targetCommit.getFileContent(fileName));
         }
         for (String fileName : getCurrentCommit().fileMap.keySet()) {
-            if (targetCommit.fileMap.containsKey(fileName)) {
+            if (targetCommit.fileMap.containsKey(fileName) || !sparse.includes(fileName)) {
+                continue;
+            }
+            deleteWorkingFile(fileName);
+        }
+    }
+
+    /* Change the CWD from the files of one tree to the files of another, both fileName -> blob UID.
+     *  Only the files whose blob differs are written or deleted, and only in the sparse-checkout cone. */
+    static void checkoutTree(Map<String, String> from, Map<String, String> to) {
+        SparseCheckout sparse = SparseCheckout.get();
+        for (Map.Entry<String, String> entry : to.entrySet()) {
+            String fileName = entry.getKey();
+            if (entry.getValue().equals(from.get(fileName)) || !sparse.includes(fileName)) {
                 continue;
             }
-            restrictedDelete(join(CWD, fileName));
+            Blob blob = readObject(join(OBJECTS_DIR, entry.getValue()), Blob.class);
+            writeWorkingFile(fileName, blob.getContent());
+        }
+        for (String fileName : from.keySet()) {
+            if (!to.containsKey(fileName) && sparse.includes(fileName)) {
+                deleteWorkingFile(fileName);
+            }
+        }
+    }
+
+    /* Exit if moving the CWD from the given commit to the target tree would lose work, i.e. if any file
+     *  that checkoutTree would write or delete is untracked, or is tracked but modified in the CWD. */
+    static void checkCanCheckoutTree(Commit commit, Map<String, String> target) {
+        SparseCheckout sparse = SparseCheckout.get();
+        Set<String> changedFiles = new HashSet<>(commit.fileMap.keySet());
+        changedFiles.addAll(target.keySet());
+        for (String fileName : changedFiles) {
+            if (Objects.equals(commit.getFileUID(fileName), target.get(fileName)) || !sparse.includes(fileName)) {
+                continue;
+            }
+            File file = join(CWD, fileName);
+            if (!commit.track(fileName) && file.exists()) {
+                handleErrorAndExit("There is an untracked file in the way; delete it, or add and commit it first.");
+            }
+            if (commit.track(fileName) && (!file.exists() || commit.isFileModified(fileName))) {
+                handleErrorAndExit("You have uncommitted changes.");
+            }
         }
     }
 
     /* Reset to a commit simply means checkout commit and reset the HEAD. */
     public static void reset(String prefix) {
-        Commit commit = Commit.getCommit(prefix);
+        Commit commit = resolveCommit(prefix);
         if (commit == null) {
             handleErrorAndExit("No commit with that id exists.");
         }
@@ -371,11 +450,10 @@ public class Repository {
         /* Just write the current commitUID into the file called
          *  .gitlet/refs/heads/branchName. Nothing more should be done! */
         Commit curCommit = getCurrentCommit();
-        File branchFile = join(REFS_DIR, branch);
-        if (branchFile.exists()) {
+        if (exists(branch)) {
             handleErrorAndExit("A branch with that name already exists.");
         }
-        writeContents(branchFile, curCommit.getUID());
+        Refs.local().writeBranch(branch, curCommit.getUID());
     }
 
     /* Delete the branch with the given name.
@@ -389,16 +467,63 @@ public class Repository {
             handleErrorAndExit("Cannot remove the current branch.");
         }
 
-        File branchFile = join(REFS_DIR, branch);
-        restrictedDelete(branchFile);
+        Refs.local().deleteBranch(branch);
     }
 
 
+    /* Print out the tags lexically. */
+    public static void listTags() {
+        for (String tag : Refs.local().listTags()) {
+            System.out.println(tag);
+        }
+    }
+
+    /* Create a tag with the given name pointing at the commit, or at the current commit if commitPrefix is null.
+     *  With a message it is an annotated tag, a Tag object the ref points at. Without one the ref is the commit. */
+    public static void tag(String tag, String message, String commitPrefix) {
+        Commit commit = commitPrefix == null ? getCurrentCommit() : resolveCommit(commitPrefix);
+        if (commit == null) {
+            handleErrorAndExit("No commit with that id exists.");
+        }
+        if (Refs.local().readTag(tag) != null) {
+            handleErrorAndExit("A tag with that name already exists.");
+        }
+        String UID = commit.getUID();
+        if (message != null) {
+            Tag tagObject = new Tag(tag, message, UID);
+            tagObject.save();
+            UID = tagObject.getUID();
+        }
+        Refs.local().writeTag(tag, UID);
+    }
+
+    /* Delete the tag with the given name. The tag object, if any, stays in the objects. */
+    public static void removeTag(String tag) {
+        if (Refs.local().readTag(tag) == null) {
+            handleErrorAndExit("A tag with that name does not exist.");
+        }
+        Refs.local().deleteTag(tag);
+    }
+
+    /* Move all the branches and tags into the packed-refs file. */
+    public static void packRefs() {
+        Refs.local().pack();
+    }
+
+    /* Given a tag name or a commitUID prefix, return the commit, or null if there is none.
+     *  A tag wins over a commitUID prefix that happens to look the same. */
+    static Commit resolveCommit(String name) {
+        String tagged = Refs.local().readTag(name);
+        if (tagged != null) {
+            return Tag.peel(tagged);
+        }
+        return Commit.getCommit(name);
+    }
+
     /* Merge files from the given branch into the current branch. */
     public static void merge(String givenBranch) {
         String currentBranch = getCurrentBranch();
         StagingArea area = getStagingArea();
-        File currentBranchFile = join(REFS_DIR, currentBranch);
 
         Commit currentHead = getHeadCommit(currentBranch);
         Commit givenHead = getHeadCommit(givenBranch);
@@ -430,7 +555,6 @@ public class Repository {
              *  And since the head is changed, we should change the CWD to the givenCommit. */
             checkoutCommit(givenHead);
             changeHeadTo(givenHead);
-            writeContents(currentBranchFile, givenHead.getUID());
             System.out.println("Current branch fast-forwarded.");
             return;
         }
@@ -451,11 +575,10 @@ public class Repository {
 
 
     /* Given the branch name, return the branch's head commit. */
-    private static Commit getHeadCommit(String branch) {
-        File branchFile = join(REFS_DIR, branch);
-        if (!branchFile.exists()) return null;
-        String UID = readContentsAsString(branchFile);
-        return Commit.getCommit(UID);
+    static Commit getHeadCommit(String branch) {
+        String UID = Refs.local().readBranch(branch);
+        if (UID == null) return null;
+        return readObject(join(OBJECTS_DIR, UID), Commit.class);
     }
 
 
@@ -505,12 +628,6 @@ public class Repository {
     /* Given the file name, rewrite the file with conflict message.
      *  The file is expected to exist in the CWD. If not just create it. */
     private static void rewriteConflictFile(String fileName, String UIDInCurrent, String UIDInGiven) {
-        // Locate the conflict file in the CWD, current branch and given branch
-        File conflictFile = join(CWD, fileName);
-        if (!conflictFile.exists()) {
-            tryCreate(conflictFile);
-        }
-
         // Handle null pointer
         String givenContent = UIDInGiven == null ? "" : readStoredFile(join(OBJECTS_DIR, UIDInGiven));
         String currentContent = UIDInCurrent == null ? "" : readStoredFile(join(OBJECTS_DIR, UIDInCurrent));
@@ -525,7 +642,7 @@ public class Repository {
         conflictContentBuilder.append(givenContent); // givenContent本身不应包含末尾的 \n 以匹配 conflict1.txt 的第4行
         conflictContentBuilder.append("\n>>>>>>>");
 
-        writeContents(conflictFile, conflictContentBuilder.toString());
+        writeWorkingFile(fileName, conflictContentBuilder.toString().getBytes(StandardCharsets.UTF_8));
     }
 
 
@@ -577,7 +694,7 @@ public class Repository {
 
     /* Return Map<commitUID, depth> of the given branch. It is a breath first search. */
     private static Map<String, Integer> getAllAncestorWithDepth(String branch) {
-        Commit start = Commit.getCommit(readContentsAsString(join(REFS_DIR, branch)));
+        Commit start = getHeadCommit(branch);
         Map<String, Integer> commitMap = new HashMap<>();
 
         Queue<Commit> queue = new LinkedList<>();
@@ -599,10 +716,9 @@ public class Repository {
     }
 
 
-    /* Return true if the branch actually exists in the REF_DIR. */
+    /* Return true if the branch actually exists, loose in the REF_DIR or packed. */
     private static boolean exists(String branch) {
-        File branchFile = join(REFS_DIR, branch);
-        return branchFile.exists();
+        return Refs.local().readBranch(branch) != null;
     }
 
     /* Return true if the given branch is the current branch. */
@@ -612,10 +728,14 @@ public class Repository {
     }
 
     /* Return true if there is any untracked file (not exist in current commit)
-     *  would be overwritten by the given commit. */
+     *  would be overwritten by the given commit. Only the sparse-checkout cone would be written. */
     private static boolean hasUntrackedFileConflict(Commit commit) {
         Commit curCommit = getCurrentCommit();
+        SparseCheckout sparse = SparseCheckout.get();
         for (String fileName : commit.fileMap.keySet()) {
+            if (!sparse.includes(fileName)) {
+                continue;
+            }
             File file = join(CWD, fileName);
             boolean fileExistInCWD = file.exists();
             boolean isTracked = curCommit.fileMap.containsKey(fileName);
@@ -636,13 +756,9 @@ public class Repository {
         System.out.println();
     }
 
-    /* A helper method to print the branches names lexically. */
-    private static void printLexically(List<String> branches, String currentBranch) {
-        if (branches == null) {
-            return;
-        }
-        Set<String> branchSet = new TreeSet<>(branches);
-        for (String branch : branchSet) {
+    /* A helper method to print the branches names, which Refs already lists lexically. */
+    private static void printBranches(List<String> branches, String currentBranch) {
+        for (String branch : branches) {
             if (branch.equals(currentBranch)) {
                 continue;
             }
@@ -652,43 +768,80 @@ public class Repository {
     }
 
 
-    /* A helper method to print commit in specified format. */
-    private static void printCommit(Commit commit) {
-        Formatter formatter = new Formatter();
-        SimpleDateFormat sdf = new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy Z", Locale.ENGLISH);
-        if (commit.secondParentUID == null) {
-            formatter.format("===\ncommit %s\nDate: %s\n%s\n\n", commit.getUID(), commit.timestamp, commit.message);
-        } else {// The commit is a merged commit, we should add more information
-            formatter.format("===\ncommit %s\nMerge: %s %s\nDate: %s\n%s\n\n", commit.getUID(),
-                    commit.parentUID.substring(0, 7), commit.secondParentUID.substring(0, 7), commit.timestamp, commit.message);
+    /* The number of chars log buffers before it prints them out. */
+    private static final int LOG_BUFFER_SIZE = 1 << 16;
+
+    /* A helper method to append commit in specified format to the log output. */
+    private static void appendCommit(StringBuilder out, Commit commit) {
+        out.append("===\ncommit ").append(commit.getUID()).append('\n');
+        if (commit.secondParentUID != null) {// The commit is a merged commit, we should add more information
+            out.append("Merge: ").append(commit.parentUID, 0, 7).append(' ')
+                    .append(commit.secondParentUID, 0, 7).append('\n');
+        }
+        out.append("Date: ").append(commit.getFormattedTimestamp()).append('\n');
+        out.append(commit.message).append("\n\n");
+    }
+
+    /* Print out the log output once it is big enough, so the output is written in large chunks. */
+    private static void flushIfFull(StringBuilder out) {
+        if (out.length() >= LOG_BUFFER_SIZE) {
+            System.out.print(out);
+            out.setLength(0);
         }
-        System.out.print(formatter.toString());
     }
 
     /* Change the head to point at the given commit. */
-    private static void changeHeadTo(Commit newCommit) {
-        File branchFile = join(REFS_DIR, getCurrentBranch());
-        writeContents(branchFile, newCommit.getUID());
+    static void changeHeadTo(Commit newCommit) {
+        Refs.local().writeBranch(getCurrentBranch(), newCommit.getUID());
     }
 
     /* Return the current commit object. */
-    private static Commit getCurrentCommit() {
-        File branchFile = join(REFS_DIR, getCurrentBranch());
-        File currentCommitFile = join(OBJECTS_DIR, readContentsAsString(branchFile));
+    static Commit getCurrentCommit() {
+        String UID = Refs.local().readBranch(getCurrentBranch());
+        File currentCommitFile = join(OBJECTS_DIR, UID);
         return readObject(currentCommitFile, Commit.class);
     }
 
     /* Return the current staging area object. */
-    private static StagingArea getStagingArea() {
+    static StagingArea getStagingArea() {
         File stagingAreaFile = join(OBJECTS_DIR, "stagingArea");
         return readObject(stagingAreaFile, StagingArea.class);
     }
 
     /* Return the current branch name. */
-    private static String getCurrentBranch() {
+    static String getCurrentBranch() {
         return readContentsAsString(HEAD);
     }
 
+    /* File names are paths relative to the CWD, and they are always separated by "/" in commits.
+    An operand is resolved against the CWD and normalized first, so "./sub/a.txt", "sub//a.txt" and "sub/"
+    are the same keys as "sub/a.txt" and "sub", and "." is the CWD itself, the empty path.
+    A path outside the CWD is left as it is, and will not be found. */
+    static String toWorkingPath(String fileName) {
+        Path cwd = CWD.toPath().toAbsolutePath().normalize();
+        Path path = cwd.resolve(fileName).normalize();
+        String relative = path.startsWith(cwd) ? cwd.relativize(path).toString() : fileName;
+        return relative.replace(File.separatorChar, '/');
+    }
+
+    /* Write the content to the file in the CWD, creating its parent directories as needed. */
+    static void writeWorkingFile(String fileName, byte[] content) {
+        File file = join(CWD, fileName);
+        file.getParentFile().mkdirs();
+        writeContents(file, (Object) content);
+    }
+
+    /* Delete the file in the CWD, and then its parent directories that become empty. */
+    static void deleteWorkingFile(String fileName) {
+        File file = join(CWD, fileName);
+        restrictedDelete(file);
+        // File.delete() refuses to delete a directory that is not empty, which stops the loop
+        File dir = file.getParentFile();
+        while (!dir.equals(CWD) && dir.delete()) {
+            dir = dir.getParentFile();
+        }
+    }
+
     /* A helper method to handleError. */
     private static void handleErrorAndExit(String errorMessage) {
         System.out.println(errorMessage);
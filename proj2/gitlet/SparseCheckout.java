@@ -0,0 +1,138 @@
+package gitlet;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static gitlet.Repository.*;
+import static gitlet.Utils.*;
+
+/* The sparse-checkout patterns of a repository, stored in .gitlet/sparse-checkout with one pattern per line.
+ *  A pattern ending with "/" takes in a whole directory, and any other pattern is a glob on the path, such as *.txt.
+ *  The paths matched by the patterns are called the cone. Only the cone is materialized in the CWD,
+ *  and checkout, status and the untracked file check never look at anything outside of it.
+ *  When the file doesn't exist, sparse checkout is disabled and every path is in the cone. */
+public class SparseCheckout {
+    /* The .gitlet/sparse-checkout file. */
+    public static final File SPARSE_FILE = join(GITLET_DIR, "sparse-checkout");
+
+    /* The patterns are compiled once per command, so keep the loaded object here. */
+    private static SparseCheckout current;
+
+    /* Whether .gitlet/sparse-checkout existed when the patterns were loaded, so that
+     *  includes() and mayContain() do not stat it again for every path. */
+    private final boolean enabled;
+    private final List<String> patterns;
+    /* Patterns ending with "/", i.e. directories whose whole subtree is in the cone. */
+    private final List<String> dirPrefixes = new ArrayList<>();
+    /* All the other patterns, compiled into glob matchers. */
+    private final List<PathMatcher> globs = new ArrayList<>();
+
+    private SparseCheckout(boolean enabled, List<String> patterns) {
+        this.enabled = enabled;
+        this.patterns = patterns;
+        for (String pattern : patterns) {
+            if (pattern.endsWith("/")) {
+                dirPrefixes.add(pattern);
+            } else {
+                globs.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+            }
+        }
+    }
+
+    /* Return the sparse checkout of the repository in the CWD. */
+    static SparseCheckout get() {
+        if (current == null) {
+            List<String> patterns = new ArrayList<>();
+            boolean enabled = SPARSE_FILE.exists();
+            if (enabled) {
+                for (String line : readContentsAsString(SPARSE_FILE).split("\n")) {
+                    if (!line.isBlank()) {
+                        patterns.add(line.trim());
+                    }
+                }
+            }
+            current = new SparseCheckout(enabled, patterns);
+        }
+        return current;
+    }
+
+    /* Return true if sparse checkout is enabled. */
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /* Return true if the file path is in the cone. */
+    boolean includes(String path) {
+        if (!isEnabled()) {
+            return true;
+        }
+        for (String prefix : dirPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        for (PathMatcher glob : globs) {
+            if (glob.matches(Paths.get(path))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Return true if something under the directory path (without the trailing "/") may be in the cone.
+     *  A directory walker uses it to skip whole subtrees. Globs may match anywhere, so they never prune. */
+    boolean mayContain(String dirPath) {
+        if (!isEnabled() || !globs.isEmpty()) {
+            return true;
+        }
+        String dir = dirPath + "/";
+        for (String prefix : dirPrefixes) {
+            if (dir.startsWith(prefix) || prefix.startsWith(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Set the sparse-checkout patterns, then bring the CWD into line with the new cone. */
+    public static void set(List<String> patterns) {
+        writeContents(SPARSE_FILE, String.join("\n", patterns) + "\n");
+        current = null;
+        applyCone();
+    }
+
+    /* Print out the sparse-checkout patterns, one per line. */
+    public static void list() {
+        for (String pattern : get().patterns) {
+            System.out.println(pattern);
+        }
+    }
+
+    /* Disable sparse checkout and materialize every file of the current commit again. */
+    public static void disable() {
+        SPARSE_FILE.delete();
+        current = null;
+        applyCone();
+    }
+
+    /* For each file in the current commit: write it out if it is in the cone but missing in the CWD.
+     *  If it is outside the cone, remove it from the CWD, unless it is staged or has been modified. */
+    private static void applyCone() {
+        SparseCheckout sparse = get();
+        Commit currentCommit = getCurrentCommit();
+        StagingArea area = getStagingArea();
+        for (String fileName : currentCommit.fileMap.keySet()) {
+            File file = join(CWD, fileName);
+            if (sparse.includes(fileName)) {
+                if (!file.exists()) {
+                    writeWorkingFile(fileName, currentCommit.getFileContent(fileName));
+                }
+            } else if (file.exists() && !area.hasStagedFile(fileName) && currentCommit.isFileUnchanged(fileName)) {
+                deleteWorkingFile(fileName);
+            }
+        }
+    }
+}
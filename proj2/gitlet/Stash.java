@@ -0,0 +1,142 @@
+package gitlet;
+
+import java.io.File;
+import java.util.*;
+
+import static gitlet.Repository.*;
+import static gitlet.Utils.*;
+
+/* The stash command: stash push, stash pop and stash list.
+ *  Like git, one stash entry is two commits that are never on a branch:
+ *  the index commit is the current commit plus the staging area, and its parent is the current commit.
+ *  The working commit is the index commit plus the modified working files, and its parents are the current
+ *  commit and the index commit. Blobs that are unchanged are reused by ID, so only the edited files are written.
+ *  The stash is a stack of working commit UIDs in .gitlet/stash, one per line with the newest first. */
+public class Stash {
+    /* The .gitlet/stash file. */
+    public static final File STASH_FILE = join(GITLET_DIR, "stash");
+
+    /* Save the staging area and the modified tracked files, then bring the CWD back to the current commit. */
+    public static void push() {
+        Commit head = getCurrentCommit();
+        StagingArea area = getStagingArea();
+        SparseCheckout sparse = SparseCheckout.get();
+
+        // The index commit: the current commit with the staging area applied
+        Map<String, String> indexFiles = new HashMap<>(head.fileMap);
+        indexFiles.putAll(area.getAddedFiles());
+        indexFiles.keySet().removeAll(area.getRemovedFiles().keySet());
+
+        // The working commit: the index commit with the working files. Only a changed blob is saved
+        Map<String, String> workingFiles = new HashMap<>(indexFiles);
+        for (String fileName : indexFiles.keySet()) {
+            if (!sparse.includes(fileName)) {
+                continue;
+            }
+            File file = join(CWD, fileName);
+            if (!file.exists()) {
+                workingFiles.remove(fileName);
+                continue;
+            }
+            Blob blob = new Blob(file);
+            if (!blob.getUID().equals(indexFiles.get(fileName))) {
+                blob.save();
+                workingFiles.put(fileName, blob.getUID());
+            }
+        }
+
+        if (workingFiles.equals(head.fileMap)) {
+            handleErrorAndExit("No local changes to save.");
+        }
+
+        String description = getCurrentBranch() + ": " + head.getUID().substring(0, 7) + " " + head.message;
+        Commit indexCommit = new Commit("index on " + description, head.getUID(), null, indexFiles);
+        indexCommit.save();
+        Commit workingCommit = new Commit("WIP on " + description, head.getUID(), indexCommit.getUID(), workingFiles);
+        workingCommit.save();
+
+        List<String> stack = readStack();
+        stack.add(0, workingCommit.getUID());
+        writeStack(stack);
+
+        checkoutTree(workingFiles, head.fileMap);
+        area.clear();
+    }
+
+    /* Apply the newest stash entry on top of the current commit, restore its staging area and drop it.
+     *  The current commit may have moved since the push, so each file is merged three ways by blob ID:
+     *  the base is the commit the stash was made on. Nothing is touched if any file conflicts. */
+    public static void pop() {
+        List<String> stack = readStack();
+        if (stack.isEmpty()) {
+            handleErrorAndExit("No stash entries found.");
+        }
+        StagingArea area = getStagingArea();
+        if (!area.isEmpty()) {
+            handleErrorAndExit("You have uncommitted changes.");
+        }
+
+        Commit workingCommit = readObject(join(OBJECTS_DIR, stack.get(0)), Commit.class);
+        Commit indexCommit = readObject(join(OBJECTS_DIR, workingCommit.secondParentUID), Commit.class);
+        Commit base = workingCommit.parentCommit();
+        Commit head = getCurrentCommit();
+
+        TreeMerge workingMerge = TreeMerge.merge(base.fileMap, head.fileMap, workingCommit.fileMap);
+        TreeMerge indexMerge = TreeMerge.merge(base.fileMap, head.fileMap, indexCommit.fileMap);
+        if (workingMerge.hasConflict() || indexMerge.hasConflict()) {
+            handleErrorAndExit("Cannot apply the stash, it conflicts with the current commit.");
+        }
+        Map<String, String> mergedWorking = workingMerge.merged;
+        Map<String, String> mergedIndex = indexMerge.merged;
+        checkCanCheckoutTree(head, mergedWorking);
+
+        checkoutTree(head.fileMap, mergedWorking);
+        for (Map.Entry<String, String> entry : mergedIndex.entrySet()) {
+            if (!entry.getValue().equals(head.getFileUID(entry.getKey()))) {
+                area.addFile(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String fileName : head.fileMap.keySet()) {
+            if (!mergedIndex.containsKey(fileName)) {
+                area.removeFile(fileName);
+            }
+        }
+        area.save();
+
+        stack.remove(0);
+        writeStack(stack);
+    }
+
+    /* Print out the stash entries, the newest first. */
+    public static void list() {
+        List<String> stack = readStack();
+        for (int i = 0; i < stack.size(); i++) {
+            Commit workingCommit = readObject(join(OBJECTS_DIR, stack.get(i)), Commit.class);
+            System.out.println("stash@{" + i + "}: " + workingCommit.message);
+        }
+    }
+
+
+    /* Return the stash stack, the newest first. */
+    private static List<String> readStack() {
+        List<String> stack = new ArrayList<>();
+        if (STASH_FILE.exists()) {
+            for (String line : readContentsAsString(STASH_FILE).split("\n")) {
+                if (!line.isEmpty()) {
+                    stack.add(line);
+                }
+            }
+        }
+        return stack;
+    }
+
+    private static void writeStack(List<String> stack) {
+        writeContents(STASH_FILE, String.join("\n", stack));
+    }
+
+    /* A helper method to handleError. */
+    private static void handleErrorAndExit(String errorMessage) {
+        System.out.println(errorMessage);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,72 @@
+package gitlet;
+
+import java.io.File;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static gitlet.Repository.OBJECTS_DIR;
+import static gitlet.Utils.*;
+
+/* Represents an annotated tag object: a named commit with a message and the time it was tagged.
+ *  It is stored in .gitlet/objects like commits and blobs, and the tag ref points at it.
+ *  A lightweight tag has no object, its ref points at the commit directly. */
+public class Tag implements Serializable, Dumpable {
+    /* The name of the tag. */
+    public String name;
+    /* The message of the tag. */
+    public String message;
+    /* The SHA-1 code of the tagged commit. */
+    public String commitUID;
+    /* The time when the tag is created, in milliseconds since the epoch. */
+    public long timestamp;
+    /* The offset from UTC of the time zone where the tag is created, in seconds. */
+    public int timezoneOffset;
+    /* Store the uid once the tag is saved. */
+    private String UID;
+
+
+    /* Constructor for one annotated tag. */
+    public Tag(String name, String message, String commitUID) {
+        this.name = name;
+        this.message = message;
+        this.commitUID = commitUID;
+        Instant now = Instant.now();
+        this.timestamp = now.toEpochMilli();
+        this.timezoneOffset = ZoneId.systemDefault().getRules().getOffset(now).getTotalSeconds();
+    }
+
+    /* Serialize the tag itself and store it in the .gitlet/objects. */
+    public void save() {
+        UID = sha1((Object) serialize(this));
+        writeObject(join(OBJECTS_DIR, UID), this);
+    }
+
+    /* Return the UID(SHA-1 code) of the tag. */
+    public String getUID() {
+        return UID;
+    }
+
+    /* Given the UID a tag ref points at, return the tagged commit.
+     *  The UID is either an annotated tag object, or the commit itself for a lightweight tag. */
+    public static Commit peel(String UID) {
+        File objectFile = join(OBJECTS_DIR, UID);
+        try {
+            return readObject(objectFile, Commit.class);
+        } catch (IllegalArgumentException e) {
+            /* Not a commit, so it is a tag object. */
+            Tag tag = readObject(objectFile, Tag.class);
+            return readObject(join(OBJECTS_DIR, tag.commitUID), Commit.class);
+        }
+    }
+
+
+    /* A helper method to print out the needed information
+    to check if the object is what we expected. */
+    @Override
+    public void dump() {
+        System.out.println("Tag: " + name);
+        System.out.println("Commit: " + commitUID);
+        System.out.println("Message: " + message);
+    }
+}
@@ -0,0 +1,154 @@
+package gitlet;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static gitlet.Utils.*;
+
+/* Counts and times the file system, serialization and hashing work of one gitlet command.
+ *  It is off unless the command is run with --trace, and then every call of the traced Utils methods
+ *  is recorded by name: the number of calls, the bytes it read, wrote or hashed, and a histogram of its latency.
+ *  When the command finishes, even through System.exit, the breakdown is printed to stderr,
+ *  or with --trace=FILE written to FILE as JSON.
+ *  The times are inclusive, so writeObject also counts the writeContents it calls.
+ *  plainFilenamesIn lists names rather than bytes, so its bytes are the number of names it returned.
+ *  WorkingTree scans directories in parallel, so everything recorded here is safe to update from many threads. */
+class Trace {
+    /* The histogram has one bucket per power of two nanoseconds, bucket i holds the latencies in [2^(i-1), 2^i). */
+    private static final int BUCKETS = 40;
+
+    /* The statistics of one traced operation. */
+    private static class Stat {
+        final LongAdder calls = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos, long byteCount) {
+            calls.increment();
+            bytes.add(byteCount);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+            histogram.incrementAndGet(bucket);
+        }
+
+        /* Return the upper bound of the bucket that holds the given quantile, at most the max latency. */
+        long percentile(double quantile) {
+            long count = calls.sum();
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(1L << i, maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+    }
+
+    /* True if the current command is traced. Checked first by every traced method, so tracing costs nothing when off. */
+    static volatile boolean enabled = false;
+
+    private static final Map<String, Stat> STATS = new ConcurrentHashMap<>();
+    private static String command;
+    private static long commandStart;
+
+    /* Start tracing the given command. The report goes to the JSON file, or to stderr if jsonFile is null. */
+    static void enable(String commandName, File jsonFile) {
+        command = commandName;
+        commandStart = System.nanoTime();
+        enabled = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            long totalNanos = System.nanoTime() - commandStart;
+            if (jsonFile == null) {
+                System.err.print(textReport(totalNanos));
+            } else {
+                writeContents(jsonFile, jsonReport(totalNanos));
+            }
+        }));
+    }
+
+    /* Return the time to pass to record later, or 0 if tracing is off. */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /* Record one call of the operation that began at start and handled the given number of bytes. */
+    static void record(String operation, long start, long bytes) {
+        if (!enabled) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        STATS.computeIfAbsent(operation, k -> new Stat()).record(nanos, bytes);
+    }
+
+
+    /* A table with one line per operation, sorted by name. */
+    private static String textReport(long totalNanos) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("=== Trace: %s %.3f ms ===%n", command, totalNanos / 1e6));
+        out.append(String.format("%-18s %8s %12s %12s %10s %10s %10s %10s%n",
+                "operation", "calls", "bytes", "total ms", "p50 us", "p90 us", "p99 us", "max us"));
+        for (Map.Entry<String, Stat> entry : new TreeMap<>(STATS).entrySet()) {
+            Stat stat = entry.getValue();
+            out.append(String.format("%-18s %8d %12d %12.3f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), stat.calls.sum(), stat.bytes.sum(), stat.totalNanos.sum() / 1e6,
+                    stat.percentile(0.5) / 1e3, stat.percentile(0.9) / 1e3,
+                    stat.percentile(0.99) / 1e3, stat.maxNanos.get() / 1e3));
+        }
+        return out.toString();
+    }
+
+    /* The same numbers as the table, plus the non-empty histogram buckets by their upper bound in nanoseconds. */
+    private static String jsonReport(long totalNanos) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\n  \"command\": ").append(jsonString(command)).append(",\n");
+        out.append("  \"totalNanos\": ").append(totalNanos).append(",\n");
+        out.append("  \"operations\": {");
+        String separator = "\n";
+        for (Map.Entry<String, Stat> entry : new TreeMap<>(STATS).entrySet()) {
+            Stat stat = entry.getValue();
+            out.append(separator).append("    ").append(jsonString(entry.getKey())).append(": {");
+            out.append("\"calls\": ").append(stat.calls.sum());
+            out.append(", \"bytes\": ").append(stat.bytes.sum());
+            out.append(", \"totalNanos\": ").append(stat.totalNanos.sum());
+            out.append(", \"maxNanos\": ").append(stat.maxNanos.get());
+            out.append(", \"histogram\": {");
+            String bucketSeparator = "";
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = stat.histogram.get(i);
+                if (count > 0) {
+                    out.append(bucketSeparator).append('"').append(1L << i).append("\": ").append(count);
+                    bucketSeparator = ", ";
+                }
+            }
+            out.append("}}");
+            separator = ",\n";
+        }
+        out.append("\n  }\n}\n");
+        return out.toString();
+    }
+
+    /* The string as a JSON string literal. The command name is whatever was typed, so it may hold quotes. */
+    private static String jsonString(String s) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+}
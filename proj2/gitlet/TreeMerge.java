@@ -0,0 +1,48 @@
+package gitlet;
+
+import java.util.*;
+
+/* A three-way merge of two file trees (fileName -> blob UID) against their base, done in memory.
+ *  Files are compared by blob ID only, nothing is read or written. A file changed differently on both sides
+ *  is a conflict, and the merge stops at the first one it finds. */
+class TreeMerge {
+    /* The merged tree, or null if there is a conflict. */
+    final Map<String, String> merged;
+    /* The first file found in conflict, or null if there is none. */
+    final String conflictFile;
+
+    private TreeMerge(Map<String, String> merged, String conflictFile) {
+        this.merged = merged;
+        this.conflictFile = conflictFile;
+    }
+
+    /* Merge the changes from base to theirs into ours. */
+    static TreeMerge merge(Map<String, String> base, Map<String, String> ours, Map<String, String> theirs) {
+        Map<String, String> merged = new HashMap<>(ours);
+        Set<String> allFiles = new HashSet<>(base.keySet());
+        allFiles.addAll(theirs.keySet());
+        for (String fileName : allFiles) {
+            String UIDInBase = base.get(fileName);
+            String UIDInOurs = ours.get(fileName);
+            String UIDInTheirs = theirs.get(fileName);
+            // Unchanged in theirs, or both sides made the same change
+            if (Objects.equals(UIDInBase, UIDInTheirs) || Objects.equals(UIDInOurs, UIDInTheirs)) {
+                continue;
+            }
+            if (!Objects.equals(UIDInBase, UIDInOurs)) {
+                return new TreeMerge(null, fileName);
+            }
+            if (UIDInTheirs == null) {
+                merged.remove(fileName);
+            } else {
+                merged.put(fileName, UIDInTheirs);
+            }
+        }
+        return new TreeMerge(merged, null);
+    }
+
+    /* Return true if the merge stopped at a conflict. */
+    boolean hasConflict() {
+        return conflictFile != null;
+    }
+}
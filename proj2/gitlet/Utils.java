@@ -43,13 +43,18 @@ class Utils {
      * be any mixture of byte arrays and Strings.
      */
     static String sha1(Object... vals) {
+        long start = Trace.start();
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-1");
+            long bytes = 0;
             for (Object val : vals) {
                 if (val instanceof byte[]) {
                     md.update((byte[]) val);
+                    bytes += ((byte[]) val).length;
                 } else if (val instanceof String) {
-                    md.update(((String) val).getBytes(StandardCharsets.UTF_8));
+                    byte[] valBytes = ((String) val).getBytes(StandardCharsets.UTF_8);
+                    md.update(valBytes);
+                    bytes += valBytes.length;
                 } else {
                     throw new IllegalArgumentException("improper type to sha1");
                 }
@@ -58,6 +63,7 @@ class Utils {
             for (byte b : md.digest()) {
                 result.format("%02x", b);
             }
+            Trace.record("sha1", start, bytes);
             return result.toString();
         } catch (NoSuchAlgorithmException excp) {
             throw new IllegalArgumentException("System does not support SHA-1");
@@ -109,8 +115,11 @@ class Utils {
         if (!file.isFile()) {
             throw new IllegalArgumentException("must be a normal file");
         }
+        long start = Trace.start();
         try {
-            return Files.readAllBytes(file.toPath());
+            byte[] contents = Files.readAllBytes(file.toPath());
+            Trace.record("readContents", start, contents.length);
+            return contents;
         } catch (IOException excp) {
             throw new IllegalArgumentException(excp.getMessage());
         }
@@ -139,6 +148,7 @@ class Utils {
      * in case of problems.
      */
     static void writeContents(File file, Object... contents) {
+        long start = Trace.start();
         try {
             if (file.isDirectory()) {
                 throw
@@ -146,14 +156,15 @@ class Utils {
             }
             BufferedOutputStream str =
                     new BufferedOutputStream(Files.newOutputStream(file.toPath()));
+            long bytes = 0;
             for (Object obj : contents) {
-                if (obj instanceof byte[]) {
-                    str.write((byte[]) obj);
-                } else {
-                    str.write(((String) obj).getBytes(StandardCharsets.UTF_8));
-                }
+                byte[] objBytes = obj instanceof byte[]
+                        ? (byte[]) obj : ((String) obj).getBytes(StandardCharsets.UTF_8);
+                str.write(objBytes);
+                bytes += objBytes.length;
             }
             str.close();
+            Trace.record("writeContents", start, bytes);
         } catch (IOException | ClassCastException excp) {
             throw new IllegalArgumentException(excp.getMessage());
         }
@@ -165,11 +176,13 @@ class Utils {
      */
     static <T extends Serializable> T readObject(File file,
                                                  Class<T> expectedClass) {
+        long start = Trace.start();
         try {
             ObjectInputStream in =
                     new ObjectInputStream(new FileInputStream(file));
             T result = expectedClass.cast(in.readObject());
             in.close();
+            Trace.record("readObject", start, file.length());
             return result;
         } catch (IOException | ClassCastException
                  | ClassNotFoundException excp) {
@@ -181,7 +194,10 @@ class Utils {
      * Write OBJ to FILE.
      */
     static void writeObject(File file, Serializable obj) {
-        writeContents(file, serialize(obj));
+        long start = Trace.start();
+        byte[] contents = serialize(obj);
+        writeContents(file, contents);
+        Trace.record("writeObject", start, contents.length);
     }
 
     /* DIRECTORIES */
@@ -203,11 +219,14 @@ class Utils {
      * not denote a directory.
      */
     static List<String> plainFilenamesIn(File dir) {
+        long start = Trace.start();
         String[] files = dir.list(PLAIN_FILES);
         if (files == null) {
             return null;
         } else {
             Arrays.sort(files);
+            /* There are no bytes to count, so record the number of names listed. */
+            Trace.record("plainFilenamesIn", start, files.length);
             return Arrays.asList(files);
         }
     }
@@ -0,0 +1,111 @@
+package gitlet;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static gitlet.Repository.CWD;
+
+/* Scans the working tree for files, recursively.
+ *  Every directory is listed by its own fork/join task, so sibling directories are scanned concurrently.
+ *  The .gitlet directory, ignored paths and directories outside the sparse-checkout cone are never opened.
+ *  Each task carries the ignore rules state of its directory, so an entry only costs one step of the rules.
+ *  The paths are relative to the CWD, separated by "/", and already in lexicographic order. */
+class WorkingTree {
+    /* The name of the gitlet directory, which is never part of the working tree. */
+    private static final String GITLET_DIR_NAME = ".gitlet";
+
+    /* Return all the files in the working tree. */
+    static List<String> scan() {
+        return scan("");
+    }
+
+    /* Return all the files under the directory dirPath of the working tree. The empty path means the CWD. */
+    static List<String> scan(String dirPath) {
+        IgnoreRules ignoreRules = IgnoreRules.get();
+        ScanTask task = new ScanTask(dirPath, ignoreRules.stateOf(dirPath), SparseCheckout.get(), ignoreRules);
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /* List one directory, fork a task for each subdirectory and put the results together in order. */
+    private static class ScanTask extends RecursiveTask<List<String>> {
+        private final String dirPath;
+        private final IgnoreRules.State ignoreState;
+        private final SparseCheckout sparse;
+        private final IgnoreRules ignoreRules;
+
+        ScanTask(String dirPath, IgnoreRules.State ignoreState, SparseCheckout sparse, IgnoreRules ignoreRules) {
+            this.dirPath = dirPath;
+            this.ignoreState = ignoreState;
+            this.sparse = sparse;
+            this.ignoreRules = ignoreRules;
+        }
+
+        @Override
+        protected List<String> compute() {
+            File dir = dirPath.isEmpty() ? CWD : Utils.join(CWD, dirPath);
+            File[] files = dir.listFiles();
+            if (files == null) {
+                return Collections.emptyList();
+            }
+            String prefix = dirPath.isEmpty() ? "" : dirPath + "/";
+
+            /* Sort by name, with "/" appended to directory names. Then every path under a directory
+             *  comes exactly where it belongs among its siblings, e.g. "a.txt" < "a/b.txt" < "a0.txt". */
+            List<Entry> entries = new ArrayList<>(files.length);
+            for (File file : files) {
+                String path = prefix + file.getName();
+                IgnoreRules.State state = ignoreRules.step(ignoreState, file.getName());
+                if (file.isDirectory()) {
+                    if (file.getName().equals(GITLET_DIR_NAME) || ignoreRules.isIgnored(state, true)
+                            || !sparse.mayContain(path)) {
+                        continue;
+                    }
+                    entries.add(new Entry(file.getName() + "/", path, state, true));
+                } else if (file.isFile()) {
+                    if (ignoreRules.isIgnored(state, false) || !sparse.includes(path)) {
+                        continue;
+                    }
+                    entries.add(new Entry(file.getName(), path, state, false));
+                }
+            }
+            entries.sort(Comparator.comparing(entry -> entry.sortKey));
+
+            List<ScanTask> subtasks = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (entry.isDirectory) {
+                    ScanTask subtask = new ScanTask(entry.path, entry.ignoreState, sparse, ignoreRules);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                }
+            }
+
+            List<String> result = new ArrayList<>();
+            Iterator<ScanTask> subtaskIter = subtasks.iterator();
+            for (Entry entry : entries) {
+                if (entry.isDirectory) {
+                    result.addAll(subtaskIter.next().join());
+                } else {
+                    result.add(entry.path);
+                }
+            }
+            return result;
+        }
+    }
+
+    /* A file or directory found in a directory listing. */
+    private static class Entry {
+        final String sortKey;
+        final String path;
+        final IgnoreRules.State ignoreState;
+        final boolean isDirectory;
+
+        Entry(String sortKey, String path, IgnoreRules.State ignoreState, boolean isDirectory) {
+            this.sortKey = sortKey;
+            this.path = path;
+            this.ignoreState = ignoreState;
+            this.isDirectory = isDirectory;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+import sys, re, random
+from subprocess import run, PIPE
+from os.path import abspath, dirname, join
+from getopt import getopt, GetoptError
+from os import environ, makedirs, getcwd
+from shutil import rmtree
+from tempfile import mkdtemp
+from time import perf_counter
+from statistics import median
+
+SHORT_USAGE = """\
+Usage: python3 benchmark.py OPTIONS
+
+   OPTIONS may include
+       --progdir=DIR   Directory or JAR files containing gitlet application
+       --files=N       Number of files in the synthetic repository (default 200).
+       --commits=N     Number of commits on master (default 20).
+       --branches=N    Number of extra branches (default 4).
+       --blob-size=N   Size of each file in bytes (default 1024).
+       --runs=N        Number of timed runs of each operation (default 5).
+       --seed=N        Seed of the content generator (default 61).
+       --gc            Run java with -Xlog:gc and report the collections
+                       and the memory allocated by each operation.
+       --baseline=FILE Compare with the results in FILE, and exit with
+                       code 1 if an operation is slower by more than
+                       --threshold.
+       --threshold=P   Allowed slowdown in percent (default 50).
+       --save=FILE     Write the results to FILE, to serve as a baseline.
+"""
+
+USAGE = SHORT_USAGE + """\
+
+Generate a gitlet repository of the given shape in a temporary directory,
+then time the operations add, commit, status, log, global-log, find,
+checkout and merge on it.
+
+The repository has --files files of --blob-size bytes under data/. Each of
+the --commits commits rewrites a tenth of the files, and each of the
+--branches branches makes one commit of its own on top of master.
+
+Every run is a fresh "java gitlet.Main" like the real program, so the times
+include the start of the JVM. It is the same for every operation, and is
+reported on its own as "startup" (the time of a command with no operands),
+so what is left is the cost of the operation itself. Each operation is run
+--runs times and the median is reported, together with the fastest run.
+The state an operation changes is put back before the next run.
+
+The results are one line per operation, "NAME MEDIAN_MS MIN_MS", and
+with --gc also "GCS ALLOCATED_KB". The memory allocated is what the
+collections freed plus what is in use when the JVM exits, the most of all
+runs. A baseline is such a file, together with the shape of the repository
+it was measured on in "#" lines. It is only compared with results of the
+same shape, and by the fastest runs, which vary the least with the load of
+the machine.
+"""
+
+JAVA_COMMAND = ["java"]
+
+def Usage():
+    print(SHORT_USAGE, file=sys.stderr)
+    sys.exit(1)
+
+class Gitlet:
+    """Runs gitlet.Main in the directory DIR and records its times."""
+
+    def __init__(self, dir, gc):
+        self.dir = dir
+        self.gc = gc
+
+    def __call__(self, *args):
+        """Run gitlet with ARGS and return (output, seconds, gcs, allocated_kb)."""
+        command = JAVA_COMMAND + (["-Xlog:gc,gc+heap+exit:stderr"] if self.gc else []) \
+            + ["gitlet.Main"] + list(args)
+        start = perf_counter()
+        result = run(command, cwd=self.dir, stdout=PIPE, stderr=PIPE,
+                     universal_newlines=True)
+        elapsed = perf_counter() - start
+        gcs, allocated = 0, 0
+        for line in result.stderr.splitlines():
+            mat = re.search(r'Pause.*?(\d+)M->(\d+)M', line)
+            if mat:
+                gcs += 1
+                allocated += (int(mat.group(1)) - int(mat.group(2))) * 1024
+            mat = re.search(r'(generation|heap)\s+total \d+K, used (\d+)K', line)
+            if mat:
+                allocated += int(mat.group(2))
+        return result.stdout, elapsed, gcs, allocated
+
+def content(rand, size):
+    """Return SIZE bytes of random text, in lines of 64 characters."""
+    letters = "abcdefghijklmnopqrstuvwxyz"
+    chars = [rand.choice(letters) if (i + 1) % 65 else "\n"
+             for i in range(size)]
+    return "".join(chars)
+
+def writeFiles(dir, rand, names, size):
+    for name in names:
+        with open(join(dir, name), "w") as f:
+            f.write(content(rand, size))
+
+def generate(gitlet, shape, rand):
+    """Build the synthetic repository of SHAPE in gitlet.dir."""
+    data = join(gitlet.dir, "data")
+    makedirs(data)
+    names = ["data/file{:05d}.txt".format(i) for i in range(shape['files'])]
+    gitlet("init")
+    writeFiles(gitlet.dir, rand, names, shape['blob-size'])
+    gitlet("add", "data")
+    gitlet("commit", "commit 0")
+    for c in range(1, shape['commits']):
+        writeFiles(gitlet.dir, rand, rand.sample(names, max(1, len(names) // 10)),
+                   shape['blob-size'])
+        gitlet("add", "data")
+        gitlet("commit", "commit {}".format(c))
+    for b in range(shape['branches']):
+        gitlet("branch", "branch{}".format(b))
+        gitlet("checkout", "branch{}".format(b))
+        writeFiles(gitlet.dir, rand, ["data/branch{}.txt".format(b)], shape['blob-size'])
+        gitlet("add", "data")
+        gitlet("commit", "work on branch {}".format(b))
+        gitlet("checkout", "master")
+    return names
+
+def operations(gitlet, shape, rand, names):
+    """Return [(name, setup, operation, teardown)], where each one is a function
+    of no arguments. Only the operation is timed, and it returns what a call
+    of gitlet returns."""
+    head = [None]
+    branch = "branch0" if shape['branches'] > 0 else "master"
+
+    def edit():
+        writeFiles(gitlet.dir, rand, rand.sample(names, max(1, len(names) // 10)),
+                   shape['blob-size'])
+    def rememberHead():
+        out = gitlet("log")[0]
+        head[0] = re.search(r'commit ([0-9a-f]{40})', out).group(1)
+    def rememberAndEdit():
+        rememberHead()
+        edit()
+    def editAndAdd():
+        rememberAndEdit()
+        gitlet("add", "data")
+    def resetHead():
+        gitlet("reset", head[0])
+    def nothing():
+        pass
+
+    return [
+        ("startup", nothing, lambda: gitlet(), nothing),
+        ("add", rememberAndEdit, lambda: gitlet("add", "data"), resetHead),
+        ("commit", editAndAdd, lambda: gitlet("commit", "benchmark commit"),
+         resetHead),
+        ("status", nothing, lambda: gitlet("status"), nothing),
+        ("log", nothing, lambda: gitlet("log"), nothing),
+        ("global-log", nothing, lambda: gitlet("global-log"), nothing),
+        ("find", nothing, lambda: gitlet("find", "commit 1"), nothing),
+        ("checkout", nothing, lambda: gitlet("checkout", branch),
+         lambda: gitlet("checkout", "master")),
+        ("merge", rememberHead, lambda: gitlet("merge", branch), resetHead),
+    ]
+
+def measure(ops, runs):
+    """Return {name: (median_ms, min_ms, gcs, allocated_kb)}."""
+    results = {}
+    for name, setup, op, teardown in ops:
+        times, gcs, allocated = [], 0, 0
+        for _ in range(runs):
+            setup()
+            _, elapsed, op_gcs, op_allocated = op()
+            teardown()
+            times.append(elapsed * 1000)
+            gcs = max(gcs, op_gcs)
+            allocated = max(allocated, op_allocated)
+        results[name] = (median(times), min(times), gcs, allocated)
+    return results
+
+def shapeLines(shape):
+    return ["# {} {}".format(key, shape[key]) for key in sorted(shape)]
+
+def format(results, shape, gc):
+    lines = shapeLines(shape)
+    for name, (med, low, gcs, allocated) in results.items():
+        line = "{:<12} {:10.1f} {:10.1f}".format(name, med, low)
+        if gc:
+            line += " {:6d} {:10d}".format(gcs, allocated)
+        lines.append(line)
+    return "\n".join(lines) + "\n"
+
+def readBaseline(file, shape):
+    """Return {name: min_ms} of the baseline FILE, or None if it was measured
+    on a repository of another shape."""
+    with open(file) as inp:
+        text = inp.read()
+    if not all(line in text.splitlines() for line in shapeLines(shape)):
+        return None
+    baseline = {}
+    for line in text.splitlines():
+        if line and not line.startswith("#"):
+            fields = line.split()
+            baseline[fields[0]] = float(fields[2])
+    return baseline
+
+def compare(results, baseline, threshold):
+    """Print the change of each operation against BASELINE. Return the number
+    of operations slower by more than THRESHOLD percent."""
+    # Every run pays for the start of the JVM, so compare what is left of it
+    startup = results["startup"][1]
+    baseStartup = baseline.get("startup", 0)
+    regressions = 0
+    for name, (_, low, _, _) in results.items():
+        if name not in baseline:
+            continue
+        if name == "startup":
+            now, before = low, baseline[name]
+        else:
+            now, before = max(low - startup, 0), max(baseline[name] - baseStartup, 0)
+        change = (now - before) / before * 100 if before > 0 else 0
+        flag = ""
+        if change > threshold and now - before > 5:
+            flag = "  REGRESSION"
+            regressions += 1
+        print("{:<12} {:10.1f} -> {:10.1f} ms {:+7.1f}%{}"
+              .format(name, before, now, change, flag))
+    return regressions
+
+if __name__ == "__main__":
+    prog_dir = None
+    shape = {'files': 200, 'commits': 20, 'branches': 4, 'blob-size': 1024}
+    runs, seed, gc = 5, 61, False
+    baseline_file = save_file = None
+    threshold = 50.0
+    try:
+        opts, args = \
+            getopt(sys.argv[1:], '',
+                   ['progdir=', 'files=', 'commits=', 'branches=',
+                    'blob-size=', 'runs=', 'seed=', 'gc', 'baseline=',
+                    'threshold=', 'save=', 'help'])
+        for opt, val in opts:
+            if opt == "--progdir":
+                prog_dir = val
+            elif opt[2:] in shape:
+                shape[opt[2:]] = int(val)
+            elif opt == "--runs":
+                runs = int(val)
+            elif opt == "--seed":
+                seed = int(val)
+            elif opt == "--gc":
+                gc = True
+            elif opt == "--baseline":
+                baseline_file = val
+            elif opt == "--threshold":
+                threshold = float(val)
+            elif opt == "--save":
+                save_file = val
+            elif opt == "--help":
+                print(USAGE)
+                sys.exit(0)
+        if prog_dir is None:
+            prog_dir = dirname(abspath(getcwd()))
+        if args or shape['commits'] < 2:
+            Usage()
+    except (GetoptError, ValueError):
+        Usage()
+
+    if 'CLASSPATH' in environ:
+        environ['CLASSPATH'] = "{}:{}".format(abspath(prog_dir), environ['CLASSPATH'])
+    else:
+        environ['CLASSPATH'] = abspath(prog_dir)
+
+    rand = random.Random(seed)
+    dir = mkdtemp(prefix="gitlet-bench-")
+    try:
+        gitlet = Gitlet(dir, gc)
+        names = generate(gitlet, shape, rand)
+        results = measure(operations(gitlet, shape, rand, names), runs)
+    finally:
+        rmtree(dir, ignore_errors=True)
+
+    report = format(results, shape, gc)
+    print(report, end="")
+    if save_file:
+        with open(save_file, "w") as out:
+            out.write(report)
+    if baseline_file:
+        baseline = readBaseline(baseline_file, shape)
+        if baseline is None:
+            print("The baseline was measured on another repository shape.",
+                  file=sys.stderr)
+            sys.exit(1)
+        print()
+        if compare(results, baseline, threshold) > 0:
+            sys.exit(1)
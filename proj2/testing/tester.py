@@ -66,6 +66,9 @@ The instructions each have one of the following forms:
    = NAME F
           Check that the file named NAME is identical to src/F, and report an
           error if not.
+   =* NAME F
+          Check that the file named NAME contains a match of the Python
+          regular expression in src/F, and report an error if not.
    * NAME
           Check that the file NAME does not exist, and report an error if it
           does.
@@ -207,6 +210,12 @@ def correctFileOutput(name, expected, dir):
     stdData = canonicalize(contents(join(src_dir, expected)))
     return userData == stdData
 
+def correctFilePattern(name, pattern_file, dir):
+    userData = contents(join(dir, name))
+    pattern = contents(join(src_dir, pattern_file))
+    return userData is not None and pattern is not None \
+        and re.search(pattern.strip(), userData, re.M) is not None
+
 def correctProgramOutput(expected, actual, last_groups, is_regexp):
     expected = re.sub(r'[ \t]+\n', '\n', '\n'.join(expected))
     expected = re.sub(r'(?m)^[ \t]+', ' ', expected)
@@ -363,6 +372,12 @@ def doTest(test):
                     print("ERROR ({})".format(msg))
                     reportDetails(test, included_files, line_num)
                     return False
+            elif Match(r'=\*\s*(\S+)\s+(\S+)', line):
+                if not correctFilePattern(Group(1), Group(2), cdir):
+                    print("ERROR (file {} does not match {})"
+                          .format(Group(1), Group(2)))
+                    reportDetails(test, included_files, line_num)
+                    return False
             elif Match(r'=\s*(\S+)\s+(\S+)', line):
                 if not correctFileOutput(Group(1), Group(2), cdir):
                     print("ERROR (file {} has incorrect content)"